@@ -2,9 +2,13 @@ package com.capstone.Players;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+import com.capstone.ids.IdAllocatorConfig;
 
 
 @SpringBootApplication
+@Import(IdAllocatorConfig.class)
 //@EnableWebFlux
 public class PlayersApplication {
 
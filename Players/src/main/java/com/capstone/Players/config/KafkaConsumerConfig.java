@@ -1,17 +1,27 @@
 package com.capstone.Players.config;
 
 import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.serialization.PlayerStatsBinaryDeserializer;
+import com.capstone.Players.service.ScoreDeduplicator;
 //import com.capstone.cricketmatch.entity.PlayerStatsDTO;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,28 +29,82 @@ import java.util.Map;
 @Configuration
 public class KafkaConsumerConfig {
 
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    // Upper bound on how many score events one poll (and therefore one bulkWrite) carries
+    @Value("${players.kafka.batch.max-poll-records:500}")
+    private int maxPollRecords;
+
+    // How long the broker may hold a fetch to fill it up, trading a little latency for bigger batches
+    @Value("${players.kafka.batch.fetch-max-wait-ms:100}")
+    private int fetchMaxWaitMs;
+
+    // Consumer threads; each owns a share of the partitions, so more than the partition count only idles
+    @Value("${players.kafka.concurrency:1}")
+    private int concurrency;
+
+    // Run the consumer threads as virtual threads; they spend nearly all their time waiting on Mongo
+    @Value("${players.kafka.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    // binary: compact versioned encoding that also accepts JSON events; json: Spring JsonDeserializer only
+    @Value("${players.kafka.value-format:binary}")
+    private String valueFormat;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ScoreDeduplicator scoreDeduplicator;
+
     @Bean
     public ConsumerFactory<String, PlayerStatsDTO> consumerFactory() {
         Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "player-scores");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+            "json".equalsIgnoreCase(valueFormat) ? JsonDeserializer.class : PlayerStatsBinaryDeserializer.class);
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        
-        return new DefaultKafkaConsumerFactory<>(
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        // Offsets are committed by the listener once the bulk write is acknowledged
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        DefaultKafkaConsumerFactory<String, PlayerStatsDTO> factory = new DefaultKafkaConsumerFactory<>(
             configProps,
             new StringDeserializer(),
-            new JsonDeserializer<>(PlayerStatsDTO.class, false)
+            valueDeserializer()
         );
+        // Binds the client metrics, among them kafka.consumer.fetch.manager.records.lag per topic and partition
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    private Deserializer<PlayerStatsDTO> valueDeserializer() {
+        if ("json".equalsIgnoreCase(valueFormat)) {
+            return new JsonDeserializer<>(PlayerStatsDTO.class, false);
+        }
+        return new PlayerStatsBinaryDeserializer();
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, PlayerStatsDTO> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, PlayerStatsDTO> factory = 
+        ConcurrentKafkaListenerContainerFactory<String, PlayerStatsDTO> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("score-consumer-");
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+        // Hand the listener a whole poll at a time and let it decide when the offsets may be committed
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // Partitions that change hands reload their high-water marks from Mongo
+        factory.getContainerProperties().setConsumerRebalanceListener(scoreDeduplicator);
         return factory;
     }
 }
-
@@ -0,0 +1,78 @@
+package com.capstone.Players.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.streams.KafkaStreamsMicrometerListener;
+
+import com.capstone.Players.service.CareerStatsTopology;
+import com.capstone.Players.service.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// players.kafka.mode=streams: career stats are aggregated by a Kafka Streams topology instead of the batch listener,
+// and reach Mongo once per commit interval rather than once per poll
+@EnableKafkaStreams
+@Configuration
+@ConditionalOnProperty(name = "players.kafka.mode", havingValue = "streams")
+public class KafkaStreamsConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${players.kafka.topic:my-topic}")
+    private String topic;
+
+    // Also the consumer group and the prefix of the changelog and repartition topics
+    @Value("${players.kafka.streams.application-id:player-career-stats}")
+    private String applicationId;
+
+    // How often offsets are committed and the aggregated deltas are written to Mongo
+    @Value("${players.kafka.streams.commit-interval:10s}")
+    private Duration commitInterval;
+
+    // exactly_once_v2 commits the store changelogs with the input offsets, which the two-step flush in
+    // CareerStatsTopology relies on to never write a batch twice; needs a broker cluster with transactions
+    @Value("${players.kafka.streams.processing-guarantee:exactly_once_v2}")
+    private String processingGuarantee;
+
+    // RocksDB files of the local store; restored from the changelog topic when missing
+    @Value("${players.kafka.streams.state-dir:${java.io.tmpdir}/kafka-streams}")
+    private String stateDir;
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        configProps.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, commitInterval.toMillis());
+        configProps.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        configProps.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, processingGuarantee);
+        return new KafkaStreamsConfiguration(configProps);
+    }
+
+    // UserService is taken as a parameter, not a field, so it can look the streams up without a bean cycle
+    @Bean
+    public CareerStatsTopology careerStatsTopology(StreamsBuilder streamsBuilder, UserService userService) {
+        CareerStatsTopology topology = new CareerStatsTopology(topic, commitInterval, userService);
+        topology.addTo(streamsBuilder);
+        return topology;
+    }
+
+    // Streams client metrics (commit rate, process latency, store sizes) under kafka.stream.*
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer streamsMetricsConfigurer(MeterRegistry meterRegistry) {
+        return factoryBean -> factoryBean.addListener(new KafkaStreamsMicrometerListener(meterRegistry));
+    }
+}
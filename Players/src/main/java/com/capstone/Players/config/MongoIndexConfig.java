@@ -0,0 +1,40 @@
+package com.capstone.Players.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+
+import com.capstone.Players.model.User;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Declares the indexes the user lookups rely on; ensureIndex is a no-op when an index already exists
+@Configuration
+public class MongoIndexConfig {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        ensureIndexes().subscribe(null,
+                error -> System.out.println("Failed to create user indexes: " + error));
+    }
+
+    public Mono<Void> ensureIndexes() {
+        ReactiveIndexOperations users = mongoTemplate.indexOps(User.class);
+        // Sparse, because users created without an email or name simply do not store the field
+        return Flux.concat(
+                users.ensureIndex(new Index().on("userEmail", Sort.Direction.ASC)
+                        .unique().sparse().named("userEmail_unique")),
+                users.ensureIndex(new Index().on("userName", Sort.Direction.ASC)
+                        .unique().sparse().named("userName_unique"))
+        ).then();
+    }
+}
@@ -0,0 +1,67 @@
+package com.capstone.Players.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.service.ReactiveScoreConsumer;
+import com.capstone.Players.service.ScoreDeduplicator;
+import com.capstone.Players.service.ScoreIngestMetrics;
+import com.capstone.Players.service.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import reactor.kafka.receiver.MicrometerConsumerListener;
+import reactor.kafka.receiver.ReceiverOptions;
+
+// players.kafka.mode=reactive: score events are read by a reactor-kafka receiver whose polling is driven by the
+// Mongo writes, instead of the listener container
+@Configuration
+@ConditionalOnProperty(name = "players.kafka.mode", havingValue = "reactive")
+public class ReactiveKafkaConfig {
+
+    @Value("${players.kafka.topic:my-topic}")
+    private String topic;
+
+    // Same cap as the listener's polls; also the largest batch handed to one coalesced write
+    @Value("${players.kafka.batch.max-poll-records:500}")
+    private int batchSize;
+
+    // How long a partly filled batch waits for more events before it is written anyway
+    @Value("${players.kafka.reactive.batch-wait:100ms}")
+    private Duration batchWait;
+
+    @Value("${players.kafka.batch.write-timeout:30s}")
+    private Duration writeTimeout;
+
+    @Bean
+    public ReactiveScoreConsumer reactiveScoreConsumer(ConsumerFactory<String, PlayerStatsDTO> consumerFactory,
+                                                       UserService userService,
+                                                       ScoreDeduplicator scoreDeduplicator,
+                                                       ScoreIngestMetrics scoreIngestMetrics,
+                                                       MeterRegistry meterRegistry) {
+        Map<String, Object> configProps = new HashMap<>(consumerFactory.getConfigurationProperties());
+        // The listener's group, so switching modes carries on from its committed offsets
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "my-group");
+        ReceiverOptions<String, PlayerStatsDTO> options = ReceiverOptions.<String, PlayerStatsDTO>create(configProps)
+                .withKeyDeserializer(new StringDeserializer())
+                .withValueDeserializer(consumerFactory.getValueDeserializer())
+                // No background commits; ReactiveScoreConsumer commits after each written batch
+                .commitInterval(Duration.ZERO)
+                .commitBatchSize(0)
+                .consumerListener(new MicrometerConsumerListener(meterRegistry))
+                .subscription(List.of(topic));
+        return new ReactiveScoreConsumer(options, userService, scoreDeduplicator, scoreIngestMetrics,
+                batchSize, batchWait, writeTimeout);
+    }
+}
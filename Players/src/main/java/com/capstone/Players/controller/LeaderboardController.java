@@ -0,0 +1,38 @@
+package com.capstone.Players.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.capstone.Players.dto.LeaderboardEntryDTO;
+import com.capstone.Players.service.LeaderboardMetric;
+import com.capstone.Players.service.LeaderboardService;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api")
+public class LeaderboardController {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    // Top players for totalScore, totalWickets, highestScore or highestWickets
+    @GetMapping("/leaderboard/{metric}")
+    public Mono<ResponseEntity<List<LeaderboardEntryDTO>>> getLeaderboard(
+            @PathVariable String metric,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        LeaderboardMetric leaderboardMetric = LeaderboardMetric.fromField(metric);
+        if (leaderboardMetric == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(leaderboardService.top(leaderboardMetric, limit)));
+    }
+}
@@ -1,13 +1,17 @@
 package com.capstone.Players.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.capstone.Players.dto.BattingStatsDTO;
@@ -16,6 +20,7 @@ import com.capstone.Players.dto.PlayerStatsDTO;
 import com.capstone.Players.model.User;
 import com.capstone.Players.service.UserService;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -27,6 +32,10 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    // Largest number of ids one multi-get may ask for
+    @Value("${players.stats.max-ids:200}")
+    private int maxStatsIds;
+
 
 
     // Create a new user
@@ -66,6 +75,16 @@ public class UserController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    // Stats of many players in one call, e.g. a whole scorecard: /api/user/stats?ids=UID-1,UID-2
+    @GetMapping("/user/stats")
+    public Mono<ResponseEntity<List<PlayerStatsDTO>>> getPlayerStats(@RequestParam("ids") List<String> userIds) {
+        if (userIds.size() > maxStatsIds) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return userService.getPlayerStats(userIds)
+                .map(ResponseEntity::ok);
+    }
+
     // Fetch Batting Stats
     @GetMapping("/user/batting-stats/{userId}")
     public Mono<BattingStatsDTO> getBattingStats(@PathVariable String userId) {
@@ -95,5 +114,24 @@ public class UserController {
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
+
+    // Latest live stats of every player in a match, served from memory
+    @GetMapping("/stats/live/{matchCode}")
+    public Mono<List<PlayerStatsDTO>> getLiveMatchStats(@PathVariable String matchCode) {
+        return Mono.fromSupplier(() -> userService.getLiveMatchStats(matchCode));
+    }
+
+    // Called once a match is over; its players' live stats leave memory right away
+    @DeleteMapping("/stats/live/{matchCode}")
+    public Mono<ResponseEntity<Void>> endLiveMatch(@PathVariable String matchCode) {
+        return Mono.fromRunnable(() -> userService.endLiveMatch(matchCode))
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    // Same stats streamed one element at a time for clients that accept NDJSON or SSE
+    @GetMapping(value = "/stats", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<PlayerStatsDTO> streamAllPlayerStats() {
+        return userService.streamAllPlayerStats();
+    }
 }
 
@@ -0,0 +1,28 @@
+package com.capstone.Players.dto;
+
+public class LeaderboardEntryDTO {
+
+    private String userId;
+    private String userName;
+    private int value;
+
+    // Constructor
+    public LeaderboardEntryDTO(String userId, String userName, int value) {
+        this.userId = userId;
+        this.userName = userName;
+        this.value = value;
+    }
+
+    // Getters
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
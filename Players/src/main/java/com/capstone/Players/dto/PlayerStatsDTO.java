@@ -1,16 +1,34 @@
 package com.capstone.Players.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class PlayerStatsDTO {
 
+    // Aliases accept the property names cricketmatch's PlayerStats is serialized with
+    @JsonAlias("playerId")
     private String userId;
+    @JsonAlias("playerName")
     private String userName;
     private int totalScore;
     private int totalWickets;
     private int totalMatches;
     private int highestScore;
     private int highestWickets;
+    @JsonAlias("runsScored")
     private int currentScore;
+    @JsonAlias("wicketsTaken")
     private int currentWickets;
+    private String matchCode;
+    // Producer-assigned id of a score event, used to drop redeliveries; 0 on events from older producers
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private long eventId;
+    // Partition (see ScoreDeduplicator.sourceKey) and offset the consumer read the event at; never serialized
+    @JsonIgnore
+    private String source;
+    @JsonIgnore
+    private long sourceOffset;
 
     // Constructor
     public PlayerStatsDTO(String userId, String userName, int totalScore, int totalWickets,
@@ -99,6 +117,38 @@ public class PlayerStatsDTO {
         this.highestWickets = highestWickets;
     }
 
+    public String getMatchCode() {
+        return matchCode;
+    }
+
+    public void setMatchCode(String matchCode) {
+        this.matchCode = matchCode;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public long getSourceOffset() {
+        return sourceOffset;
+    }
+
+    public void setSourceOffset(long sourceOffset) {
+        this.sourceOffset = sourceOffset;
+    }
+
     // Add this default constructor just after your class declaration
     public PlayerStatsDTO() {
         // Default constructor required for JSON deserialization
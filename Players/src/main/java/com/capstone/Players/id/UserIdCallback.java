@@ -0,0 +1,29 @@
+package com.capstone.Players.id;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import com.capstone.Players.model.User;
+import com.capstone.ids.IdAllocator;
+
+import reactor.core.publisher.Mono;
+
+// Gives a new user its id just before it is written, so inserts never collide and never need a retry
+@Component
+public class UserIdCallback implements ReactiveBeforeConvertCallback<User> {
+
+    private final IdAllocator idAllocator;
+
+    public UserIdCallback(IdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
+    }
+
+    @Override
+    public Publisher<User> onBeforeConvert(User user, String collection) {
+        if (user.getUserId() == null) {
+            user.setUserId("UID-" + idAllocator.nextCode());
+        }
+        return Mono.just(user);
+    }
+}
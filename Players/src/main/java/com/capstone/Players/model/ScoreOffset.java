@@ -0,0 +1,66 @@
+package com.capstone.Players.model;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Highest offset of a score topic partition whose events are already in the users collection
+@Document(collection = "score_offsets")
+public class ScoreOffset {
+
+    // topic-partition, e.g. my-topic-3
+    @Id
+    private String id;
+    private String topic;
+    private int partition;
+    private long offset;
+    private Date updatedAt;
+
+    public ScoreOffset() {
+    }
+
+    public static String idOf(String topic, int partition) {
+        return topic + "-" + partition;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,14 +1,18 @@
 package com.capstone.Players.model;
 
+import java.util.Map;
 import java.util.Random;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Document(collection = "users")
 public class User {
+    // Assigned on first save by UserIdCallback
     @Id
-    private String userId="UID-"+generateCode();
+    private String userId;
     private String userName;
     private String userEmail;
     private String password;
@@ -26,6 +30,12 @@ public class User {
     private int numberOfSupportStaff = 0;
     private int numberOfSponsors = 0;
     private int totalScore = 0;
+    // Last career-stats flush applied per streams task; mapped so that saving a loaded user keeps it
+    @JsonIgnore
+    private Map<String, Long> careerFlushes;
+    // Last Kafka offset applied per source partition (see ScoreDeduplicator.sourceKey), written with the totals
+    @JsonIgnore
+    private Map<String, Long> appliedOffsets;
     
     // Default constructor
     public User() {}
@@ -171,6 +181,22 @@ public class User {
         this.currentScore = currentScore;
     }
 
+    public Map<String, Long> getCareerFlushes() {
+        return careerFlushes;
+    }
+
+    public void setCareerFlushes(Map<String, Long> careerFlushes) {
+        this.careerFlushes = careerFlushes;
+    }
+
+    public Map<String, Long> getAppliedOffsets() {
+        return appliedOffsets;
+    }
+
+    public void setAppliedOffsets(Map<String, Long> appliedOffsets) {
+        this.appliedOffsets = appliedOffsets;
+    }
+
     public static String generateCode(){
         StringBuilder code = new StringBuilder();
         String possible = "0123456789";
@@ -0,0 +1,8 @@
+package com.capstone.Players.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.capstone.Players.model.ScoreOffset;
+
+public interface ScoreOffsetRepository extends ReactiveMongoRepository<ScoreOffset, String>, ScoreOffsetRepositoryCustom {
+}
@@ -0,0 +1,15 @@
+package com.capstone.Players.repository;
+
+import java.util.Map;
+
+import org.apache.kafka.common.TopicPartition;
+
+import com.mongodb.bulk.BulkWriteResult;
+
+import reactor.core.publisher.Mono;
+
+public interface ScoreOffsetRepositoryCustom {
+
+    // Raises the stored offset of each partition to the given one in one unordered bulk upsert; never lowers it
+    Mono<BulkWriteResult> advance(Map<TopicPartition, Long> offsets);
+}
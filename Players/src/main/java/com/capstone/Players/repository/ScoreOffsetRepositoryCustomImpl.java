@@ -0,0 +1,43 @@
+package com.capstone.Players.repository;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.capstone.Players.model.ScoreOffset;
+import com.mongodb.bulk.BulkWriteResult;
+
+import reactor.core.publisher.Mono;
+
+public class ScoreOffsetRepositoryCustomImpl implements ScoreOffsetRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ScoreOffsetRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<BulkWriteResult> advance(Map<TopicPartition, Long> offsets) {
+        Date now = new Date();
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ScoreOffset.class);
+        for (Map.Entry<TopicPartition, Long> entry : offsets.entrySet()) {
+            TopicPartition partition = entry.getKey();
+            Query query = Query.query(Criteria.where("_id").is(ScoreOffset.idOf(partition.topic(), partition.partition())));
+            bulk.upsert(query, new Update()
+                    .set("topic", partition.topic())
+                    .set("partition", partition.partition())
+                    // $max, so a consumer that lost its partition can never move the mark back
+                    .max("offset", entry.getValue())
+                    .set("updatedAt", now));
+        }
+        return bulk.execute();
+    }
+}
@@ -0,0 +1,57 @@
+package com.capstone.Players.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.model.User;
+import com.mongodb.bulk.BulkWriteResult;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Server-side stat updates; each call is a single round trip and never reads the user document first
+public interface UserRepositoryCustom {
+
+    // Adds the event's score and wickets to the totals, raises the highs and records the current values.
+    // Emits true when the user exists.
+    Mono<Boolean> applyScore(String userId, int currentScore, int currentWickets);
+
+    // Applies coalesced per-player deltas (see ScoreCoalescer) of consumed events in one unordered bulkWrite.
+    // Both maps are keyed by userId, then by source partition (see ScoreDeduplicator.sourceKey). A user whose
+    // appliedOffsets.<source> is already at or past the first offset the delta holds from that source is left
+    // alone, and the others record the last offset in the same update as the totals.
+    Mono<BulkWriteResult> applyScoreDeltas(Collection<PlayerStatsDTO> deltas, Map<String, Map<String, Long>> firstOffsets,
+                                           Map<String, Map<String, Long>> lastOffsets);
+
+    // Same, once per flush: a user whose careerFlushes.<flushKey> is already at flushId or later is left alone,
+    // and the others record flushId in the same update
+    Mono<BulkWriteResult> applyScoreDeltas(Collection<PlayerStatsDTO> deltas, String flushKey, long flushId);
+
+    // Overwrites the career stats and returns the updated user without its password
+    Mono<User> updateCareerStats(String userId, PlayerStatsDTO playerStats);
+
+    // Users with only their applied offsets populated
+    Flux<User> findAppliedOffsets(Collection<String> userIds);
+
+    // Users with only userName and the four ranked stats populated
+    Flux<User> findRankedStats(Collection<String> userIds);
+
+    // Every user without the password, read with the given cursor batch size so demand drives the driver's fetches
+    Flux<User> streamAll(int cursorBatchSize);
+
+    // The top users by one of the ranked stats, highest first, with the same projection
+    Flux<User> findTopByStat(String field, int limit);
+
+    // One user with only the fields its profile endpoint shows; the rest of the document never leaves Mongo
+    Mono<User> findBattingStats(String userId);
+
+    Mono<User> findBowlingStats(String userId);
+
+    Mono<User> findOrganizerStats(String userId);
+
+    Mono<User> findPlayerStats(String userId);
+
+    // The same projection for many users in one $in query
+    Flux<User> findPlayerStats(Collection<String> userIds);
+}
@@ -0,0 +1,181 @@
+package com.capstone.Players.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.model.User;
+import com.mongodb.bulk.BulkWriteResult;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public UserRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Boolean> applyScore(String userId, int currentScore, int currentWickets) {
+        Update update = scoreUpdate(currentScore, currentWickets, currentScore, currentWickets,
+                currentScore, currentWickets);
+        return mongoTemplate.updateFirst(byId(userId), update, User.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<BulkWriteResult> applyScoreDeltas(Collection<PlayerStatsDTO> deltas, Map<String, Map<String, Long>> firstOffsets,
+                                                  Map<String, Map<String, Long>> lastOffsets) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (PlayerStatsDTO delta : deltas) {
+            List<Criteria> notYetApplied = new ArrayList<>();
+            notYetApplied.add(Criteria.where("_id").is(delta.getUserId()));
+            firstOffsets.getOrDefault(delta.getUserId(), Map.of()).forEach((source, offset) -> {
+                String offsetField = "appliedOffsets." + source;
+                notYetApplied.add(new Criteria().orOperator(
+                        Criteria.where(offsetField).lt(offset),
+                        Criteria.where(offsetField).exists(false)));
+            });
+            Update update = scoreUpdate(
+                    delta.getTotalScore(), delta.getTotalWickets(),
+                    delta.getHighestScore(), delta.getHighestWickets(),
+                    delta.getCurrentScore(), delta.getCurrentWickets());
+            lastOffsets.getOrDefault(delta.getUserId(), Map.of())
+                    .forEach((source, offset) -> update.set("appliedOffsets." + source, offset));
+            bulk.updateOne(Query.query(new Criteria().andOperator(notYetApplied)), update);
+        }
+        return bulk.execute();
+    }
+
+    @Override
+    public Mono<BulkWriteResult> applyScoreDeltas(Collection<PlayerStatsDTO> deltas, String flushKey, long flushId) {
+        String flushField = "careerFlushes." + flushKey;
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (PlayerStatsDTO delta : deltas) {
+            Query notYetApplied = Query.query(Criteria.where("_id").is(delta.getUserId()).orOperator(
+                    Criteria.where(flushField).lt(flushId),
+                    Criteria.where(flushField).exists(false)));
+            bulk.updateOne(notYetApplied, scoreUpdate(
+                    delta.getTotalScore(), delta.getTotalWickets(),
+                    delta.getHighestScore(), delta.getHighestWickets(),
+                    delta.getCurrentScore(), delta.getCurrentWickets())
+                    .set(flushField, flushId));
+        }
+        return bulk.execute();
+    }
+
+    @Override
+    public Mono<User> updateCareerStats(String userId, PlayerStatsDTO playerStats) {
+        Update update = new Update()
+                .set("totalScore", playerStats.getTotalScore())
+                .set("totalMatches", playerStats.getTotalMatches())
+                .set("highestScore", playerStats.getHighestScore())
+                .set("totalWickets", playerStats.getTotalWickets())
+                .set("highestWickets", playerStats.getHighestWickets());
+        Query query = byId(userId);
+        query.fields().exclude("password");
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), User.class);
+    }
+
+    @Override
+    public Flux<User> findAppliedOffsets(Collection<String> userIds) {
+        Query query = Query.query(Criteria.where("_id").in(userIds));
+        query.fields().include("appliedOffsets");
+        return mongoTemplate.find(query, User.class);
+    }
+
+    @Override
+    public Flux<User> findRankedStats(Collection<String> userIds) {
+        Query query = Query.query(Criteria.where("_id").in(userIds));
+        includeRankedStats(query);
+        return mongoTemplate.find(query, User.class);
+    }
+
+    @Override
+    public Flux<User> streamAll(int cursorBatchSize) {
+        Query query = new Query().cursorBatchSize(cursorBatchSize);
+        query.fields().exclude("password");
+        return mongoTemplate.find(query, User.class);
+    }
+
+    @Override
+    public Flux<User> findTopByStat(String field, int limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, field)).limit(limit);
+        includeRankedStats(query);
+        return mongoTemplate.find(query, User.class);
+    }
+
+    // $inc for totals, $max for highs, $set for the values of the latest event
+    public static Update scoreUpdate(int scoreIncrement, int wicketIncrement, int bestScore, int bestWickets,
+                                     int currentScore, int currentWickets) {
+        return new Update()
+                .set("currentScore", currentScore)
+                .set("currentWickets", currentWickets)
+                .inc("totalScore", scoreIncrement)
+                .inc("totalWickets", wicketIncrement)
+                .max("highestScore", bestScore)
+                .max("highestWickets", bestWickets);
+    }
+
+    @Override
+    public Mono<User> findBattingStats(String userId) {
+        return findProjected(userId, "userName", "totalScore", "totalMatches", "highestScore");
+    }
+
+    @Override
+    public Mono<User> findBowlingStats(String userId) {
+        return findProjected(userId, "userName", "totalMatches", "totalWickets", "highestWickets");
+    }
+
+    @Override
+    public Mono<User> findOrganizerStats(String userId) {
+        return findProjected(userId, "userName", "numberOfMatchesOrganized", "numberOfSponsors", "numberOfSupportStaff");
+    }
+
+    @Override
+    public Mono<User> findPlayerStats(String userId) {
+        Query query = byId(userId);
+        includePlayerStats(query);
+        return mongoTemplate.findOne(query, User.class);
+    }
+
+    @Override
+    public Flux<User> findPlayerStats(Collection<String> userIds) {
+        Query query = Query.query(Criteria.where("_id").in(userIds));
+        includePlayerStats(query);
+        return mongoTemplate.find(query, User.class);
+    }
+
+    private Mono<User> findProjected(String userId, String... fields) {
+        Query query = byId(userId);
+        query.fields().include(fields);
+        return mongoTemplate.findOne(query, User.class);
+    }
+
+    private static void includeRankedStats(Query query) {
+        query.fields().include("userName", "totalScore", "totalWickets", "highestScore", "highestWickets");
+    }
+
+    private static void includePlayerStats(Query query) {
+        query.fields().include("userName", "totalScore", "totalWickets", "totalMatches", "highestScore",
+                "highestWickets", "currentScore", "currentWickets");
+    }
+
+    private static Query byId(String userId) {
+        return Query.query(Criteria.where("_id").is(userId));
+    }
+}
@@ -0,0 +1,49 @@
+package com.capstone.Players.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.wireformat.WireFormat;
+
+// Reads the compact score-event encoding, and still accepts JSON events so producers can switch format at any time
+public class PlayerStatsBinaryDeserializer implements Deserializer<PlayerStatsDTO> {
+
+    private final JsonDeserializer<PlayerStatsDTO> jsonFallback = new JsonDeserializer<>(PlayerStatsDTO.class, false);
+
+    @Override
+    public PlayerStatsDTO deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public PlayerStatsDTO deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        // A JSON object starts with '{', which is never a valid version byte
+        if (data.length > 0 && data[0] == '{') {
+            return jsonFallback.deserialize(topic, headers, data);
+        }
+        WireFormat.Reader reader = new WireFormat.Reader(data);
+        byte version = reader.readVersion(WireFormat.VERSION_2);
+
+        PlayerStatsDTO playerStats = new PlayerStatsDTO();
+        playerStats.setUserId(reader.readString());
+        playerStats.setUserName(reader.readString());
+        playerStats.setCurrentScore(reader.readInt());
+        playerStats.setCurrentWickets(reader.readInt());
+        playerStats.setMatchCode(reader.readString());
+        // Version 1 events have no id; they stay at 0 and are only deduped by offset
+        if (version >= WireFormat.VERSION_2) {
+            playerStats.setEventId(reader.readLong());
+        }
+        return playerStats;
+    }
+
+    @Override
+    public void close() {
+        jsonFallback.close();
+    }
+}
@@ -0,0 +1,33 @@
+package com.capstone.Players.serialization;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.wireformat.WireFormat;
+
+// Same encoding the cricketmatch producer writes; used by tools and tests that publish score events
+public class PlayerStatsBinarySerializer implements Serializer<PlayerStatsDTO> {
+
+    @Override
+    public byte[] serialize(String topic, PlayerStatsDTO playerStats) {
+        if (playerStats == null) {
+            return null;
+        }
+        byte[] userId = WireFormat.utf8(playerStats.getUserId());
+        byte[] userName = WireFormat.utf8(playerStats.getUserName());
+        byte[] matchCode = WireFormat.utf8(playerStats.getMatchCode());
+        int capacity = 1 + WireFormat.sizeOf(userId) + WireFormat.sizeOf(userName)
+                + 2 * WireFormat.MAX_VARINT_BYTES + WireFormat.sizeOf(matchCode) + WireFormat.MAX_VARLONG_BYTES;
+
+        // Version 2 field order: userId, userName, currentScore, currentWickets, matchCode, eventId
+        return new WireFormat.Writer(capacity)
+                .writeByte(WireFormat.VERSION_2)
+                .writeString(userId)
+                .writeString(userName)
+                .writeInt(playerStats.getCurrentScore())
+                .writeInt(playerStats.getCurrentWickets())
+                .writeString(matchCode)
+                .writeLong(playerStats.getEventId())
+                .toByteArray();
+    }
+}
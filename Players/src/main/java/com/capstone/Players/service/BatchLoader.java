@@ -0,0 +1,70 @@
+package com.capstone.Players.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+// Coalesces concurrent single-key lookups, in the spirit of a DataLoader: keys requested within one window (or until
+// maxBatch of them are waiting) are de-duplicated and answered by a single call of the batch function. Every caller
+// of a key gets the same value; keys the batch function does not return complete empty.
+public class BatchLoader<V> {
+
+    private final Function<List<String>, Flux<V>> batchFunction;
+    private final Function<V, String> keyOf;
+    private final Sinks.Many<Pending<V>> requests = Sinks.many().unicast().onBackpressureBuffer();
+
+    public BatchLoader(Function<List<String>, Flux<V>> batchFunction, Function<V, String> keyOf,
+                       int maxBatch, Duration window, int maxConcurrentBatches) {
+        this.batchFunction = batchFunction;
+        this.keyOf = keyOf;
+        requests.asFlux()
+                // Fair backpressure: while every batch slot is busy, keys keep queueing in the sink instead of
+                // overflowing the buffer
+                .bufferTimeout(maxBatch, window, true)
+                .flatMap(this::dispatch, maxConcurrentBatches)
+                .subscribe();
+    }
+
+    public Mono<V> load(String key) {
+        return Mono.defer(() -> {
+            Pending<V> pending = new Pending<>(key);
+            // Callers emit from many threads at once; the sink only takes one at a time
+            requests.emitNext(pending, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+            return pending.result.asMono();
+        });
+    }
+
+    private Mono<Void> dispatch(List<Pending<V>> batch) {
+        Map<String, List<Sinks.One<V>>> waiting = new LinkedHashMap<>();
+        for (Pending<V> pending : batch) {
+            waiting.computeIfAbsent(pending.key, key -> new ArrayList<>(1)).add(pending.result);
+        }
+        return batchFunction.apply(new ArrayList<>(waiting.keySet()))
+                .doOnNext(value -> {
+                    List<Sinks.One<V>> callers = waiting.remove(keyOf.apply(value));
+                    if (callers != null) {
+                        callers.forEach(caller -> caller.tryEmitValue(value));
+                    }
+                })
+                .doOnComplete(() -> waiting.values().forEach(callers -> callers.forEach(Sinks.One::tryEmitEmpty)))
+                .doOnError(error -> waiting.values().forEach(callers -> callers.forEach(caller -> caller.tryEmitError(error))))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private static class Pending<V> {
+        private final String key;
+        private final Sinks.One<V> result = Sinks.one();
+
+        Pending(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.capstone.Players.service;
+
+import java.util.Map;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+
+// Where the career-stats topology hands its results; kept free of Kafka Streams types so it can be stubbed in tests
+public interface CareerStatsSink {
+
+    // Every score event as it is aggregated, for the live (current) values
+    void received(PlayerStatsDTO event);
+
+    // Per-player deltas of one flush, in the ScoreCoalescer shape. Throwing keeps them for the next interval, which
+    // hands over the same deltas with the same flushKey and flushId again; so does a restore after a crash.
+    // Applying a flush must therefore be idempotent per player, flushKey and flushId; ids of a flushKey only rise.
+    void flush(String flushKey, long flushId, Map<String, PlayerStatsDTO> deltas);
+}
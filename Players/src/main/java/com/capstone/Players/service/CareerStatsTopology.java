@@ -0,0 +1,181 @@
+package com.capstone.Players.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.kafka.support.serializer.JsonSerde;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.serialization.PlayerStatsBinaryDeserializer;
+import com.capstone.Players.serialization.PlayerStatsBinarySerializer;
+
+// Score events -> per-player career deltas in a local persistent store -> Mongo once per flush interval.
+// Mongo stays the source of career totals; the stores only hold what has not been written there yet.
+//
+// A flush takes two punctuations, so a crash can never make Mongo count a batch twice: the first moves the deltas
+// into the flushing store under a new flush id and requests a commit, which (with exactly_once_v2) stores them
+// together with the input offsets; the next writes that committed batch. The sink skips players that already have
+// the flush id, so writing the same batch again after a failure or a restore adds nothing.
+public class CareerStatsTopology {
+
+    public static final String STORE = "career-deltas";
+    public static final String FLUSHING_STORE = "career-flushing";
+    public static final String FLUSH_ID_STORE = "career-flush-id";
+
+    private static final String FLUSH_ID = "flushId";
+
+    private final String topic;
+    private final Duration flushInterval;
+    private final CareerStatsSink sink;
+
+    // The binary deserializer also reads JSON events, so one serde covers both producer formats
+    private final Serde<PlayerStatsDTO> eventSerde =
+            Serdes.serdeFrom(new PlayerStatsBinarySerializer(), new PlayerStatsBinaryDeserializer());
+
+    public CareerStatsTopology(String topic, Duration flushInterval, CareerStatsSink sink) {
+        this.topic = topic;
+        this.flushInterval = flushInterval;
+        this.sink = sink;
+    }
+
+    public void addTo(StreamsBuilder builder) {
+        builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(STORE),
+                Serdes.String(), new JsonSerde<>(PlayerStatsDTO.class).noTypeInfo()));
+        builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(FLUSHING_STORE),
+                Serdes.String(), new JsonSerde<>(PlayerStatsDTO.class).noTypeInfo()));
+        builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(FLUSH_ID_STORE),
+                Serdes.String(), Serdes.Long()));
+        builder.stream(topic, Consumed.with(Serdes.String(), eventSerde))
+                .filter((matchCode, event) -> event != null && event.getUserId() != null)
+                // Events are keyed by match code; rekey by player so all of a player's deltas live in one store partition
+                .selectKey((matchCode, event) -> event.getUserId())
+                .repartition(Repartitioned.with(Serdes.String(), eventSerde).withName("by-player"))
+                .process(CareerDeltaProcessor::new, STORE, FLUSHING_STORE, FLUSH_ID_STORE);
+    }
+
+    public Topology build() {
+        StreamsBuilder builder = new StreamsBuilder();
+        addTo(builder);
+        return builder.build();
+    }
+
+    // Unflushed delta of a player, accumulating and being flushed together, if this instance hosts its partition;
+    // null while the stores are not queryable
+    public static PlayerStatsDTO pending(KafkaStreams streams, String userId) {
+        try {
+            ReadOnlyKeyValueStore<String, PlayerStatsDTO> store = streams.store(
+                    StoreQueryParameters.fromNameAndType(STORE, QueryableStoreTypes.keyValueStore()));
+            ReadOnlyKeyValueStore<String, PlayerStatsDTO> flushing = streams.store(
+                    StoreQueryParameters.fromNameAndType(FLUSHING_STORE, QueryableStoreTypes.keyValueStore()));
+            return combine(flushing.get(userId), store.get(userId));
+        } catch (InvalidStateStoreException e) {
+            // Rebalancing or restoring; Mongo alone is at most one flush interval behind
+            return null;
+        }
+    }
+
+    // The older delta followed by the newer one, as one delta
+    private static PlayerStatsDTO combine(PlayerStatsDTO older, PlayerStatsDTO newer) {
+        if (older == null || newer == null) {
+            return older != null ? older : newer;
+        }
+        PlayerStatsDTO combined = new PlayerStatsDTO();
+        combined.setUserId(newer.getUserId());
+        combined.setUserName(newer.getUserName() != null ? newer.getUserName() : older.getUserName());
+        combined.setTotalScore(older.getTotalScore() + newer.getTotalScore());
+        combined.setTotalWickets(older.getTotalWickets() + newer.getTotalWickets());
+        combined.setHighestScore(Math.max(older.getHighestScore(), newer.getHighestScore()));
+        combined.setHighestWickets(Math.max(older.getHighestWickets(), newer.getHighestWickets()));
+        combined.setCurrentScore(newer.getCurrentScore());
+        combined.setCurrentWickets(newer.getCurrentWickets());
+        return combined;
+    }
+
+    private final class CareerDeltaProcessor implements Processor<String, PlayerStatsDTO, Void, Void> {
+
+        private ProcessorContext<Void, Void> context;
+        private KeyValueStore<String, PlayerStatsDTO> deltas;
+        private KeyValueStore<String, PlayerStatsDTO> flushing;
+        private KeyValueStore<String, Long> flushIds;
+        // A player always lands on the same task, so the task id names the flushes of its players
+        private String flushKey;
+
+        @Override
+        public void init(ProcessorContext<Void, Void> context) {
+            this.context = context;
+            deltas = context.getStateStore(STORE);
+            flushing = context.getStateStore(FLUSHING_STORE);
+            flushIds = context.getStateStore(FLUSH_ID_STORE);
+            flushKey = context.taskId().toString();
+            context.schedule(flushInterval, PunctuationType.WALL_CLOCK_TIME, timestamp -> flush());
+        }
+
+        @Override
+        public void process(Record<String, PlayerStatsDTO> record) {
+            PlayerStatsDTO delta = deltas.get(record.key());
+            if (delta == null) {
+                delta = new PlayerStatsDTO();
+                delta.setUserId(record.key());
+            }
+            deltas.put(record.key(), ScoreCoalescer.merge(delta, record.value()));
+            sink.received(record.value());
+        }
+
+        // Runs on the stream thread between records, so nothing is added to the stores while they are drained
+        private void flush() {
+            // Write the batch the previous punctuation handed over, which is committed by now
+            Map<String, PlayerStatsDTO> batch = read(flushing);
+            if (!batch.isEmpty()) {
+                Long flushId = flushIds.get(FLUSH_ID);
+                try {
+                    sink.flush(flushKey, flushId, batch);
+                } catch (RuntimeException e) {
+                    System.out.println("Failed to flush career stats of " + batch.size() + " players, retrying next interval: " + e);
+                    return;
+                }
+                batch.keySet().forEach(flushing::delete);
+            }
+            // Hand the deltas over under a new id. Wall-clock based, so the ids keep rising even if the id store is
+            // ever lost and starts empty.
+            Map<String, PlayerStatsDTO> pending = read(deltas);
+            if (pending.isEmpty()) {
+                return;
+            }
+            Long lastId = flushIds.get(FLUSH_ID);
+            long flushId = Math.max(lastId == null ? 0 : lastId + 1, context.currentSystemTimeMs());
+            pending.forEach((userId, delta) -> {
+                flushing.put(userId, delta);
+                deltas.delete(userId);
+            });
+            flushIds.put(FLUSH_ID, flushId);
+            context.commit();
+        }
+
+        private Map<String, PlayerStatsDTO> read(KeyValueStore<String, PlayerStatsDTO> store) {
+            Map<String, PlayerStatsDTO> entries = new LinkedHashMap<>();
+            try (KeyValueIterator<String, PlayerStatsDTO> all = store.all()) {
+                all.forEachRemaining(entry -> entries.put(entry.key, entry.value));
+            }
+            return entries;
+        }
+    }
+}
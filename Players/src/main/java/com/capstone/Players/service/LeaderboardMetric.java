@@ -0,0 +1,40 @@
+package com.capstone.Players.service;
+
+import java.util.function.ToIntFunction;
+
+import com.capstone.Players.model.User;
+
+// The stats a leaderboard can rank by; the path name is also the User field name in Mongo
+public enum LeaderboardMetric {
+
+    TOTAL_SCORE("totalScore", User::getTotalScore),
+    TOTAL_WICKETS("totalWickets", User::getTotalWickets),
+    HIGHEST_SCORE("highestScore", User::getHighestScore),
+    HIGHEST_WICKETS("highestWickets", User::getHighestWickets);
+
+    private final String field;
+    private final ToIntFunction<User> extractor;
+
+    LeaderboardMetric(String field, ToIntFunction<User> extractor) {
+        this.field = field;
+        this.extractor = extractor;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public int valueOf(User user) {
+        return extractor.applyAsInt(user);
+    }
+
+    // Null when the name is not a ranked stat
+    public static LeaderboardMetric fromField(String field) {
+        for (LeaderboardMetric metric : values()) {
+            if (metric.field.equals(field)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.capstone.Players.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.capstone.Players.dto.LeaderboardEntryDTO;
+import com.capstone.Players.model.User;
+import com.capstone.Players.repository.UserRepository;
+
+// Top-K boards for the ranked stats, kept current from the score pipeline instead of sorting every user per request
+@Service
+public class LeaderboardService {
+
+    private static final Comparator<LeaderboardEntryDTO> RANKING =
+            Comparator.comparingInt(LeaderboardEntryDTO::getValue).reversed()
+                    .thenComparing(LeaderboardEntryDTO::getUserId);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // How many players each board keeps; also the largest limit a read can ask for
+    @Value("${players.leaderboard.capacity:100}")
+    private int capacity;
+
+    private final Map<LeaderboardMetric, Board> boards = new EnumMap<>(LeaderboardMetric.class);
+
+    public LeaderboardService() {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            boards.put(metric, new Board());
+        }
+    }
+
+    // Seed every board from Mongo with one sorted, limited query per metric
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            reload(metric);
+        }
+    }
+
+    // O(limit) read straight off the sorted board
+    public List<LeaderboardEntryDTO> top(LeaderboardMetric metric, int limit) {
+        List<LeaderboardEntryDTO> result = new ArrayList<>(Math.min(Math.max(limit, 0), capacity));
+        Iterator<LeaderboardEntryDTO> entries = boards.get(metric).ranked.iterator();
+        while (entries.hasNext() && result.size() < limit) {
+            result.add(entries.next());
+        }
+        return result;
+    }
+
+    // Feed the latest persisted stats of a user into all boards
+    public void offer(User user) {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            if (boards.get(metric).offer(user.getUserId(), user.getUserName(), metric.valueOf(user))) {
+                // A ranked player went down, so someone outside the board may now belong on it
+                reload(metric);
+            }
+        }
+    }
+
+    private void reload(LeaderboardMetric metric) {
+        Board board = boards.get(metric);
+        board.reloadStarted();
+        userRepository.findTopByStat(metric.getField(), capacity)
+                .map(user -> new LeaderboardEntryDTO(user.getUserId(), user.getUserName(), metric.valueOf(user)))
+                .collectList()
+                .doFinally(signal -> board.reloadFinished())
+                .subscribe(board::replace,
+                        error -> System.out.println("Failed to load " + metric.getField() + " leaderboard: " + error));
+    }
+
+    private final class Board {
+
+        // Readers iterate the skip list without locking; writers serialize on the board
+        private final ConcurrentSkipListSet<LeaderboardEntryDTO> ranked = new ConcurrentSkipListSet<>(RANKING);
+        private final Map<String, LeaderboardEntryDTO> byUser = new ConcurrentHashMap<>();
+        // Latest offer per player since the oldest running reload started; null while none is running
+        private Map<String, LeaderboardEntryDTO> offeredDuringReload;
+        private int reloadsRunning;
+
+        synchronized void reloadStarted() {
+            if (reloadsRunning++ == 0) {
+                offeredDuringReload = new HashMap<>();
+            }
+        }
+
+        synchronized void reloadFinished() {
+            if (--reloadsRunning == 0) {
+                offeredDuringReload = null;
+            }
+        }
+
+        // Returns true when a ranked player's value dropped and the board needs a reload
+        synchronized boolean offer(String userId, String userName, int value) {
+            if (offeredDuringReload != null) {
+                offeredDuringReload.put(userId, new LeaderboardEntryDTO(userId, userName, value));
+            }
+            LeaderboardEntryDTO existing = byUser.get(userId);
+            if (existing != null) {
+                if (existing.getValue() == value) {
+                    return false;
+                }
+                ranked.remove(existing);
+                byUser.remove(userId);
+                if (value < existing.getValue()) {
+                    return true;
+                }
+            } else if (ranked.size() >= capacity && value <= ranked.last().getValue()) {
+                return false;
+            }
+
+            LeaderboardEntryDTO entry = new LeaderboardEntryDTO(userId, userName, value);
+            ranked.add(entry);
+            byUser.put(userId, entry);
+            while (ranked.size() > capacity) {
+                LeaderboardEntryDTO evicted = ranked.pollLast();
+                byUser.remove(evicted.getUserId());
+            }
+            return false;
+        }
+
+        // Swaps in a freshly loaded ranking entry by entry, so concurrent readers never see an empty board.
+        // The query may have read a player before an offer that arrived meanwhile, so offers above what it loaded
+        // are applied again on top; a drop meanwhile has already asked for another reload.
+        synchronized void replace(List<LeaderboardEntryDTO> entries) {
+            Map<String, LeaderboardEntryDTO> fresh = new HashMap<>();
+            for (LeaderboardEntryDTO entry : entries) {
+                fresh.put(entry.getUserId(), entry);
+            }
+            for (LeaderboardEntryDTO stale : new ArrayList<>(byUser.values())) {
+                LeaderboardEntryDTO replacement = fresh.get(stale.getUserId());
+                if (replacement == null || replacement.getValue() != stale.getValue()) {
+                    ranked.remove(stale);
+                    byUser.remove(stale.getUserId());
+                }
+            }
+            for (LeaderboardEntryDTO entry : entries) {
+                if (byUser.putIfAbsent(entry.getUserId(), entry) == null) {
+                    ranked.add(entry);
+                }
+            }
+            if (offeredDuringReload != null) {
+                for (LeaderboardEntryDTO offered : new ArrayList<>(offeredDuringReload.values())) {
+                    LeaderboardEntryDTO loaded = byUser.get(offered.getUserId());
+                    if (loaded == null || offered.getValue() > loaded.getValue()) {
+                        offer(offered.getUserId(), offered.getUserName(), offered.getValue());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.capstone.Players.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Latest in-match score event per player, bounded by size and age; reads never take a lock.
+// A finished match's entries leave through the TTL unless the match is ended explicitly with evictMatch.
+@Component
+public class LiveStatsCache {
+
+    private final Cache<String, PlayerStatsDTO> latestByUser;
+
+    // Players per match code, so one match is read or evicted without scanning the cache. It may briefly list a
+    // player whose entry already moved on; readers check the entry's match code.
+    private final Map<String, Set<String>> usersByMatch = new ConcurrentHashMap<>();
+
+    public LiveStatsCache(@Value("${players.live-stats.max-size:10000}") long maxSize,
+                          @Value("${players.live-stats.ttl:6h}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        this.latestByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .removalListener((String userId, PlayerStatsDTO removed, RemovalCause cause) -> unindex(userId, removed))
+                .build();
+        // Exposes hit, miss, eviction and size meters under cache=players.live-stats
+        CaffeineCacheMetrics.monitor(meterRegistry, latestByUser, "players.live-stats");
+    }
+
+    public void put(PlayerStatsDTO playerStats) {
+        if (playerStats.getUserId() != null) {
+            latestByUser.put(playerStats.getUserId(), playerStats);
+            if (playerStats.getMatchCode() != null) {
+                usersByMatch.compute(playerStats.getMatchCode(), (matchCode, users) -> {
+                    Set<String> indexed = users != null ? users : ConcurrentHashMap.newKeySet();
+                    indexed.add(playerStats.getUserId());
+                    return indexed;
+                });
+            }
+        }
+    }
+
+    // Null when the player has no live update
+    public PlayerStatsDTO get(String userId) {
+        return latestByUser.getIfPresent(userId);
+    }
+
+    // Point-in-time copy, so a whole response is built from one consistent view
+    public Map<String, PlayerStatsDTO> snapshot() {
+        return Map.copyOf(latestByUser.asMap());
+    }
+
+    // O(players in the match)
+    public List<PlayerStatsDTO> snapshotForMatch(String matchCode) {
+        List<PlayerStatsDTO> matchStats = new ArrayList<>();
+        for (String userId : usersByMatch.getOrDefault(matchCode, Set.of())) {
+            // asMap reads do not count as cache hits or misses
+            PlayerStatsDTO playerStats = latestByUser.asMap().get(userId);
+            if (playerStats != null && matchCode.equals(playerStats.getMatchCode())) {
+                matchStats.add(playerStats);
+            }
+        }
+        return matchStats;
+    }
+
+    // Drops a finished match's entries; a player who has since moved to another match keeps that entry
+    public void evictMatch(String matchCode) {
+        Set<String> users = usersByMatch.remove(matchCode);
+        if (users == null) {
+            return;
+        }
+        for (String userId : users) {
+            latestByUser.asMap().computeIfPresent(userId,
+                    (id, playerStats) -> matchCode.equals(playerStats.getMatchCode()) ? null : playerStats);
+        }
+    }
+
+    // Runs after an entry is replaced, expired, evicted or removed. The player stays listed while its current
+    // entry still belongs to the match, which put may have written again in the meantime.
+    private void unindex(String userId, PlayerStatsDTO removed) {
+        if (userId == null || removed == null || removed.getMatchCode() == null) {
+            return;
+        }
+        usersByMatch.computeIfPresent(removed.getMatchCode(), (matchCode, users) -> {
+            PlayerStatsDTO current = latestByUser.asMap().get(userId);
+            if (current == null || !matchCode.equals(current.getMatchCode())) {
+                users.remove(userId);
+            }
+            return users.isEmpty() ? null : users;
+        });
+    }
+}
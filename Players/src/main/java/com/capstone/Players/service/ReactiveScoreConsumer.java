@@ -0,0 +1,172 @@
+package com.capstone.Players.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.SmartLifecycle;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+
+import io.micrometer.core.instrument.Timer;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverPartition;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+// players.kafka.mode=reactive: reads the score topic with reactor-kafka instead of the listener container.
+// Records are split by partition and every partition writes one batch of up to batchSize events at a time, so a
+// player's updates (keyed by match, so on one partition) are applied in order, and the receiver pauses its partitions
+// while nothing more is requested, so memory stays bounded however slow Mongo gets. A batch's dedupe marks are
+// written together with the batch and its offsets committed right after, before the partition's next batch starts.
+public class ReactiveScoreConsumer implements SmartLifecycle {
+
+    private final ReceiverOptions<String, PlayerStatsDTO> receiverOptions;
+    private final UserService userService;
+    private final ScoreDeduplicator scoreDeduplicator;
+    private final ScoreIngestMetrics scoreIngestMetrics;
+    private final int batchSize;
+    private final Duration batchWait;
+    private final Duration writeTimeout;
+
+    private final Set<TopicPartition> assignment = ConcurrentHashMap.newKeySet();
+    private volatile Disposable subscription;
+
+    public ReactiveScoreConsumer(ReceiverOptions<String, PlayerStatsDTO> receiverOptions, UserService userService,
+                                 ScoreDeduplicator scoreDeduplicator, ScoreIngestMetrics scoreIngestMetrics,
+                                 int batchSize, Duration batchWait, Duration writeTimeout) {
+        this.receiverOptions = receiverOptions
+                .addAssignListener(partitions -> {
+                    Collection<TopicPartition> assigned = topicPartitions(partitions);
+                    scoreDeduplicator.forget(assigned);
+                    assignment.addAll(assigned);
+                })
+                .addRevokeListener(partitions -> {
+                    Collection<TopicPartition> revoked = topicPartitions(partitions);
+                    scoreDeduplicator.forget(revoked);
+                    assignment.removeAll(revoked);
+                });
+        this.userService = userService;
+        this.scoreDeduplicator = scoreDeduplicator;
+        this.scoreIngestMetrics = scoreIngestMetrics;
+        this.batchSize = batchSize;
+        this.batchWait = batchWait;
+        this.writeTimeout = writeTimeout;
+    }
+
+    @Override
+    public void start() {
+        // Deferred so every retry polls with a fresh consumer
+        subscription = Flux.defer(() -> process(KafkaReceiver.create(receiverOptions).receive()))
+                // A failed batch closes the receiver. The next one resumes from the committed offsets; batches of
+                // other partitions that were written but not yet committed are skipped by their dedupe marks.
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> System.out.println("Reactive score consumer failed, restarting: " + signal.failure())))
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        assignment.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = subscription;
+        return current != null && !current.isDisposed();
+    }
+
+    // Partitions currently owned by the receiver
+    public Set<TopicPartition> getAssignment() {
+        return Set.copyOf(assignment);
+    }
+
+    // The pipeline between the receiver and the retry; emits once per committed batch
+    Flux<Void> process(Flux<ReceiverRecord<String, PlayerStatsDTO>> records) {
+        return records
+                .groupBy(record -> record.receiverOffset().topicPartition(), batchSize)
+                // Every partition needs its own running group, however many are assigned
+                .flatMap(partition -> partition
+                        // Fair backpressure: the buffer only requests what the write stage still has room for
+                        .bufferTimeout(batchSize, batchWait, true)
+                        .map(Batch::new)
+                        .concatMap(batch -> write(batch).then(commit(batch))), Integer.MAX_VALUE);
+    }
+
+    // The high-water marks move right after the users are written, so a batch that is applied is also marked as
+    // applied even when a batch of another partition fails before this one is committed
+    private Mono<Batch> write(Batch batch) {
+        batch.timer = scoreIngestMetrics.startBatch(batch.values.size());
+        return scoreDeduplicator.fresh(batch.values, batch.topics, batch.partitions, batch.offsets)
+                .flatMap(fresh -> userService.applyBatch(fresh)
+                        .then(scoreDeduplicator.applied(fresh, batch.topics, batch.partitions, batch.offsets)))
+                .timeout(writeTimeout)
+                .doOnError(error -> scoreIngestMetrics.stopBatch(batch.timer, "error"))
+                .thenReturn(batch);
+    }
+
+    // The offsets move only after the batch and its marks; a batch holds a single partition
+    private Mono<Void> commit(Batch batch) {
+        return Mono.defer(() -> {
+                    ReceiverOffset last = batch.records.get(batch.records.size() - 1).receiverOffset();
+                    last.acknowledge();
+                    return last.commit();
+                })
+                .timeout(writeTimeout)
+                .doOnSuccess(done -> {
+                    scoreIngestMetrics.stopBatch(batch.timer, "success");
+                    scoreIngestMetrics.recordPersisted(batch.timestamps);
+                })
+                .doOnError(error -> scoreIngestMetrics.stopBatch(batch.timer, "error"));
+    }
+
+    private static Collection<TopicPartition> topicPartitions(Collection<ReceiverPartition> partitions) {
+        List<TopicPartition> topicPartitions = new ArrayList<>(partitions.size());
+        for (ReceiverPartition partition : partitions) {
+            topicPartitions.add(partition.topicPartition());
+        }
+        return topicPartitions;
+    }
+
+    // One buffered batch of a partition, in the same parallel-list shape the listener gets from its headers
+    private static class Batch {
+        private final List<ReceiverRecord<String, PlayerStatsDTO>> records;
+        private final List<PlayerStatsDTO> values;
+        private final List<String> topics;
+        private final List<Integer> partitions;
+        private final List<Long> offsets;
+        private final List<Long> timestamps;
+        private Timer.Sample timer;
+
+        Batch(List<ReceiverRecord<String, PlayerStatsDTO>> records) {
+            this.records = records;
+            this.values = new ArrayList<>(records.size());
+            this.topics = new ArrayList<>(records.size());
+            this.partitions = new ArrayList<>(records.size());
+            this.offsets = new ArrayList<>(records.size());
+            this.timestamps = new ArrayList<>(records.size());
+            for (ReceiverRecord<String, PlayerStatsDTO> record : records) {
+                values.add(record.value());
+                topics.add(record.topic());
+                partitions.add(record.partition());
+                offsets.add(record.offset());
+                timestamps.add(record.timestamp());
+            }
+        }
+    }
+}
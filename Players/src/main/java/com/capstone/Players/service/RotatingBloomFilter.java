@@ -0,0 +1,80 @@
+package com.capstone.Players.service;
+
+import java.util.Arrays;
+
+// Approximate set of recently seen event ids in fixed memory. Ids go into the newest of a few equally sized Bloom
+// filters; once that one holds its capacity the oldest is cleared and becomes the newest, so an id is remembered for
+// at least (generations - 1) * capacity later ids. There are no false negatives inside that window; a false positive
+// makes a new id look seen, with at most the configured probability.
+public class RotatingBloomFilter {
+
+    private final long[][] generations;
+    private final long bitsPerGeneration;
+    private final int hashCount;
+    private final long capacity;
+
+    private int newest;
+    private long addedToNewest;
+
+    public RotatingBloomFilter(int generations, long capacity, double falsePositiveRate) {
+        if (generations < 2 || capacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Need at least 2 generations, a positive capacity and a rate in (0, 1)");
+        }
+        // A lookup checks every generation, so each one gets an equal share of the allowed rate
+        double perGeneration = falsePositiveRate / generations;
+        long bits = (long) Math.ceil(-capacity * Math.log(perGeneration) / (Math.log(2) * Math.log(2)));
+        this.bitsPerGeneration = Math.max(64, (bits + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitsPerGeneration / capacity * Math.log(2)));
+        this.capacity = capacity;
+        this.generations = new long[generations][(int) (bitsPerGeneration / 64)];
+    }
+
+    public synchronized boolean mightContain(long id) {
+        long h1 = mix(id);
+        long h2 = mix(id ^ 0x9E3779B97F4A7C15L) | 1;
+        for (long[] generation : generations) {
+            if (containsAll(generation, h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized void add(long id) {
+        if (addedToNewest >= capacity) {
+            newest = (newest + 1) % generations.length;
+            Arrays.fill(generations[newest], 0L);
+            addedToNewest = 0;
+        }
+        long h1 = mix(id);
+        long h2 = mix(id ^ 0x9E3779B97F4A7C15L) | 1;
+        long[] generation = generations[newest];
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitsPerGeneration);
+            generation[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        addedToNewest++;
+    }
+
+    // Memory held by the bit sets
+    public long sizeInBytes() {
+        return generations.length * bitsPerGeneration / 8;
+    }
+
+    private boolean containsAll(long[] generation, long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitsPerGeneration);
+            if ((generation[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // SplitMix64 finalizer: Snowflake ids differ mostly in their low bits, the hashes need all 64 mixed
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
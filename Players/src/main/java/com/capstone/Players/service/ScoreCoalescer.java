@@ -0,0 +1,67 @@
+package com.capstone.Players.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+
+// Folds a poll's worth of score events into one delta per player so the batch can be written with a single bulkWrite
+public final class ScoreCoalescer {
+
+    private ScoreCoalescer() {
+    }
+
+    // The merged DTO carries the increments in totalScore/totalWickets, the best single event in
+    // highestScore/highestWickets and the last event's values in currentScore/currentWickets
+    public static Map<String, PlayerStatsDTO> coalesce(List<PlayerStatsDTO> events) {
+        Map<String, PlayerStatsDTO> merged = new LinkedHashMap<>();
+        for (PlayerStatsDTO event : events) {
+            if (event == null || event.getUserId() == null) {
+                continue;
+            }
+            PlayerStatsDTO delta = merged.computeIfAbsent(event.getUserId(), userId -> {
+                PlayerStatsDTO d = new PlayerStatsDTO();
+                d.setUserId(userId);
+                return d;
+            });
+            merge(delta, event);
+        }
+        return merged;
+    }
+
+    // Splits the deltas into at most laneCount groups by userId hash, so the groups can be written in parallel
+    // while a player only ever appears in one of them; empty groups are left out
+    public static List<List<PlayerStatsDTO>> lanes(Collection<PlayerStatsDTO> deltas, int laneCount) {
+        List<List<PlayerStatsDTO>> lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (PlayerStatsDTO delta : deltas) {
+            lanes.get(Math.floorMod(delta.getUserId().hashCode(), laneCount)).add(delta);
+        }
+        lanes.removeIf(List::isEmpty);
+        return lanes;
+    }
+
+    // Folds one more event of the same player into a delta; shared with the Kafka Streams career aggregate
+    public static PlayerStatsDTO merge(PlayerStatsDTO delta, PlayerStatsDTO event) {
+        if (event.getUserName() != null) {
+            delta.setUserName(event.getUserName());
+        }
+        // Same rules as the per-record listener: only positive values count towards the totals
+        if (event.getCurrentScore() > 0) {
+            delta.setTotalScore(delta.getTotalScore() + event.getCurrentScore());
+        }
+        if (event.getCurrentWickets() > 0) {
+            delta.setTotalWickets(delta.getTotalWickets() + event.getCurrentWickets());
+        }
+        delta.setHighestScore(Math.max(delta.getHighestScore(), event.getCurrentScore()));
+        delta.setHighestWickets(Math.max(delta.getHighestWickets(), event.getCurrentWickets()));
+        delta.setCurrentScore(event.getCurrentScore());
+        delta.setCurrentWickets(event.getCurrentWickets());
+        return delta;
+    }
+}
@@ -0,0 +1,158 @@
+package com.capstone.Players.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.model.ScoreOffset;
+import com.capstone.Players.repository.ScoreOffsetRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Drops score events that were already counted, so most of a redelivery never reaches the user writes:
+// - records at or below a partition's persisted high-water mark were written by an earlier delivery, on any instance
+// - an eventId seen recently was re-sent by the producer side under a new offset
+// The marks move in a second write after the users, so the events it passes on carry their partition and offset;
+// UserService.applyBatch checks those against the offsets each user records in the same update as its totals.
+@Component
+public class ScoreDeduplicator implements ConsumerAwareRebalanceListener {
+
+    @Autowired
+    private ScoreOffsetRepository scoreOffsetRepository;
+
+    @Autowired
+    private ScoreIngestMetrics scoreIngestMetrics;
+
+    // Highest applied offset per partition this consumer owns; loaded from Mongo when a partition is first seen
+    private final Map<TopicPartition, Long> highWaterMarks = new ConcurrentHashMap<>();
+
+    private final RotatingBloomFilter recentEventIds;
+
+    // Each of the two generations holds this many ids, so the last window-events ids are always remembered
+    public ScoreDeduplicator(@Value("${players.dedupe.window-events:1000000}") long windowEvents,
+                             @Value("${players.dedupe.false-positive-rate:0.000001}") double falsePositiveRate,
+                             MeterRegistry meterRegistry) {
+        this.recentEventIds = new RotatingBloomFilter(2, windowEvents, falsePositiveRate);
+        Gauge.builder("players.score.dedupe.memory", recentEventIds, RotatingBloomFilter::sizeInBytes)
+                .description("Bytes held by the recent event id filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // The events of a polled batch that have not been applied yet, in their original order
+    public Mono<List<PlayerStatsDTO>> fresh(List<PlayerStatsDTO> batch, List<String> topics, List<Integer> partitions,
+                                            List<Long> offsets) {
+        return highWaterMarks(topics, partitions).map(marks -> filter(batch, topics, partitions, offsets, marks));
+    }
+
+    private List<PlayerStatsDTO> filter(List<PlayerStatsDTO> batch, List<String> topics, List<Integer> partitions,
+                                        List<Long> offsets, Map<TopicPartition, Long> marks) {
+        List<PlayerStatsDTO> fresh = new ArrayList<>(batch.size());
+        Set<Long> idsInBatch = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            TopicPartition partition = new TopicPartition(topics.get(i), partitions.get(i));
+            if (offsets.get(i) <= marks.get(partition)) {
+                scoreIngestMetrics.recordDuplicate("offset");
+                continue;
+            }
+            PlayerStatsDTO event = batch.get(i);
+            long eventId = event != null ? event.getEventId() : 0;
+            if (eventId != 0 && (!idsInBatch.add(eventId) || recentEventIds.mightContain(eventId))) {
+                scoreIngestMetrics.recordDuplicate("event-id");
+                continue;
+            }
+            if (event != null) {
+                event.setSource(sourceKey(partition.topic(), partition.partition()));
+                event.setSourceOffset(offsets.get(i));
+            }
+            fresh.add(event);
+        }
+        return fresh;
+    }
+
+    // After the batch is in Mongo: remember its ids first, so even a failed mark update followed by a redelivery
+    // to this instance is caught, then persist the new marks before the offsets are committed
+    public Mono<Void> applied(List<PlayerStatsDTO> fresh, List<String> topics, List<Integer> partitions,
+                              List<Long> offsets) {
+        return Mono.defer(() -> {
+            for (PlayerStatsDTO event : fresh) {
+                if (event != null && event.getEventId() != 0) {
+                    recentEventIds.add(event.getEventId());
+                }
+            }
+            Map<TopicPartition, Long> marks = new HashMap<>();
+            for (int i = 0; i < offsets.size(); i++) {
+                marks.merge(new TopicPartition(topics.get(i), partitions.get(i)), offsets.get(i), Math::max);
+            }
+            return scoreOffsetRepository.advance(marks)
+                    .doOnSuccess(result -> marks.forEach((partition, offset) -> highWaterMarks.merge(partition, offset, Math::max)))
+                    .then();
+        });
+    }
+
+    // Name of a partition in User.appliedOffsets; a topic may contain dots, which a field name must not
+    public static String sourceKey(String topic, int partition) {
+        return ScoreOffset.idOf(topic, partition).replace('.', '_');
+    }
+
+    // Another instance may have moved the marks while this one did not own the partitions; read them again
+    public void forget(Collection<TopicPartition> partitions) {
+        partitions.forEach(highWaterMarks::remove);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        forget(partitions);
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        forget(partitions);
+    }
+
+    // The marks of every partition in the batch; ones not seen since the last rebalance are read from Mongo,
+    // -1 when a partition has never been applied
+    private Mono<Map<TopicPartition, Long>> highWaterMarks(List<String> topics, List<Integer> partitions) {
+        Map<TopicPartition, Long> marks = new HashMap<>();
+        Set<TopicPartition> missing = new HashSet<>();
+        for (int i = 0; i < topics.size(); i++) {
+            TopicPartition partition = new TopicPartition(topics.get(i), partitions.get(i));
+            Long mark = highWaterMarks.get(partition);
+            if (mark != null) {
+                marks.put(partition, mark);
+            } else {
+                missing.add(partition);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Mono.just(marks);
+        }
+        return Flux.fromIterable(missing)
+                .flatMap(partition -> scoreOffsetRepository.findById(ScoreOffset.idOf(partition.topic(), partition.partition()))
+                        .map(ScoreOffset::getOffset)
+                        .defaultIfEmpty(-1L)
+                        .map(offset -> Map.entry(partition, offset)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(loaded -> {
+                    loaded.forEach((partition, offset) -> marks.put(partition, highWaterMarks.merge(partition, offset, Math::max)));
+                    return marks;
+                });
+    }
+}
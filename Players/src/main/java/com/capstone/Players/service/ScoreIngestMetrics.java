@@ -0,0 +1,58 @@
+package com.capstone.Players.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Meters for the score listener; per-partition consumer lag comes from the Kafka client metrics bound in KafkaConsumerConfig
+@Component
+public class ScoreIngestMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer recordLatency;
+    private final DistributionSummary batchSize;
+
+    public ScoreIngestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        // From the producer's record timestamp until the batch holding the record is written and acked
+        this.recordLatency = Timer.builder("players.score.record.latency")
+                .description("Time from a score event being produced until it is persisted")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("players.score.batch.size")
+                .description("Score events per polled batch")
+                .register(registry);
+    }
+
+    public Timer.Sample startBatch(int size) {
+        batchSize.record(size);
+        return Timer.start(registry);
+    }
+
+    public void stopBatch(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("players.score.batch")
+                .description("Time to process one polled batch of score events")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    // offset: at or below the partition's applied high-water mark; event-id: a re-sent event seen recently
+    public void recordDuplicate(String reason) {
+        registry.counter("players.score.duplicates", "reason", reason).increment();
+    }
+
+    public void recordPersisted(List<Long> producedTimestamps) {
+        long now = System.currentTimeMillis();
+        for (Long produced : producedTimestamps) {
+            if (produced != null && produced > 0) {
+                recordLatency.record(Duration.ofMillis(Math.max(0, now - produced)));
+            }
+        }
+    }
+}
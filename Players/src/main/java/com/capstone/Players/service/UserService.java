@@ -1,14 +1,21 @@
 package com.capstone.Players.service;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 import com.capstone.Players.dto.BattingStatsDTO;
@@ -17,20 +24,71 @@ import com.capstone.Players.dto.OrganizerDTO;
 import com.capstone.Players.dto.PlayerStatsDTO;
 import com.capstone.Players.model.User;
 import com.capstone.Players.repository.UserRepository;
+import com.mongodb.bulk.BulkWriteResult;
 
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
-public class UserService {
+public class UserService implements CareerStatsSink {
 
     @Autowired
     private UserRepository userRepository;
 
-    private final Map<String, PlayerStatsDTO> latestStats = new ConcurrentHashMap<>();
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    // Upper bound on how long the listener waits for a bulk write before giving the batch back to the container
+    @Value("${players.kafka.batch.write-timeout:30s}")
+    private Duration bulkWriteTimeout;
+
+    // Parallel bulk writes per batch; players are spread over them by userId, so no two touch the same document
+    @Value("${players.kafka.batch.write-lanes:4}")
+    private int writeLanes;
+
+    // Documents per Mongo cursor batch for the streaming stats endpoint; demand is requested in the same steps
+    @Value("${players.stats.cursor-batch-size:256}")
+    private int statsCursorBatchSize;
+
+    @Autowired
+    private LiveStatsCache liveStatsCache;
+
+    @Autowired
+    private ScoreIngestMetrics scoreIngestMetrics;
+
+    @Autowired
+    private ScoreDeduplicator scoreDeduplicator;
+
+    // How long a single stats lookup waits for others to share its query; 0 sends every lookup on its own
+    @Value("${players.stats.coalesce-window:2ms}")
+    private Duration statsCoalesceWindow;
+
+    // Ids per coalesced query; a full batch is sent without waiting out the window
+    @Value("${players.stats.coalesce-max-batch:100}")
+    private int statsCoalesceMaxBatch;
+
+    private BatchLoader<PlayerStatsDTO> playerStatsLoader;
+
+    // Only present with players.kafka.mode=streams; its store holds career deltas not yet written to Mongo
+    @Autowired(required = false)
+    private StreamsBuilderFactoryBean careerStatsStreams;
+
+    @PostConstruct
+    public void initPlayerStatsLoader() {
+        if (!statsCoalesceWindow.isZero()) {
+            // A handful of queries in flight at once is plenty; each one already carries up to a full batch of ids
+            playerStatsLoader = new BatchLoader<>(this::loadPlayerStats, PlayerStatsDTO::getUserId,
+                    statsCoalesceMaxBatch, statsCoalesceWindow, 8);
+        }
+    }
 
     // Create a new user
     public Mono<User> createUser(User user) {
-        return userRepository.save(user);
+        return userRepository.save(user)
+                .doOnNext(leaderboardService::offer);
     }
 
     // Update existing user
@@ -49,7 +107,8 @@ public class UserService {
                     existingUser.setNumberOfSupportStaff(user.getNumberOfSupportStaff());
                     existingUser.setNumberOfSponsors(user.getNumberOfSponsors());
                     return userRepository.save(existingUser);
-                });
+                })
+                .doOnNext(leaderboardService::offer);
     }
 
     // Find user by email
@@ -57,35 +116,44 @@ public class UserService {
         return userRepository.findByUserEmail(userEmail);
     }
 
-    // Retrieve player stats
+    // Retrieve player stats. Scorecards ask for every player at once, so lookups arriving within the coalescing
+    // window are answered together by one $in query.
     public Mono<PlayerStatsDTO> getPlayerStats(String userId) {
-        return userRepository.findById(userId)
-            .map(user -> {
-                // Get the latest Kafka update for this user
-                PlayerStatsDTO kafkaUpdate = latestStats.get(userId);
-                
-                // If we have a Kafka update, use its current values
-                int currentScore = (kafkaUpdate != null) ? 
-                    kafkaUpdate.getCurrentScore() : user.getCurrentScore();
-                int currentWickets = (kafkaUpdate != null) ? 
-                    kafkaUpdate.getCurrentWickets() : user.getCurrentWickets();
-                
-                return new PlayerStatsDTO(
-                    user.getUserId(),
-                    user.getUserName(),
-                    user.getTotalScore(),
-                    user.getTotalWickets(),
-                    user.getTotalMatches(),
-                    user.getHighestScore(),
-                    user.getHighestWickets(),
-                    currentScore,
-                    currentWickets
-                );
+        if (playerStatsLoader == null) {
+            return loadPlayerStats(List.of(userId)).next();
+        }
+        return playerStatsLoader.load(userId);
+    }
+
+    // Stats of several players with one $in query, in the order asked for; repeated and unknown ids appear once
+    // and not at all respectively
+    public Mono<List<PlayerStatsDTO>> getPlayerStats(List<String> userIds) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(userIds));
+        return loadPlayerStats(distinct)
+            .collectMap(PlayerStatsDTO::getUserId)
+            .map(byId -> {
+                List<PlayerStatsDTO> stats = new ArrayList<>(byId.size());
+                for (String userId : distinct) {
+                    PlayerStatsDTO playerStats = byId.get(userId);
+                    if (playerStats != null) {
+                        stats.add(playerStats);
+                    }
+                }
+                return stats;
             });
     }
 
+    // Current values come from the latest Kafka update for a player when there is one
+    private Flux<PlayerStatsDTO> loadPlayerStats(List<String> userIds) {
+        Flux<User> users = userIds.size() == 1
+            ? userRepository.findPlayerStats(userIds.get(0)).flux()
+            : userRepository.findPlayerStats(userIds);
+        return users.map(user -> withLiveStats(withPendingCareerStats(user), liveStatsCache.get(user.getUserId())));
+    }
+
     public Mono<BattingStatsDTO> getBattingStats(String userId) {
-        return userRepository.findById(userId)
+        return userRepository.findBattingStats(userId)
+                .map(this::withPendingCareerStats)
                 .map(user -> new BattingStatsDTO(
                         user.getUserId(),
                         user.getUserName(),
@@ -97,7 +165,8 @@ public class UserService {
 
     // Method to retrieve Bowling Stats
     public Mono<BowlingStatsDTO> getBowlingStats(String userId) {
-        return userRepository.findById(userId)
+        return userRepository.findBowlingStats(userId)
+                .map(this::withPendingCareerStats)
                 .map(user -> new BowlingStatsDTO(
                         user.getUserId(),
                         user.getUserName(),
@@ -109,7 +178,7 @@ public class UserService {
 
     // Method to retrieve Organizer Stats
     public Mono<OrganizerDTO> getOrganizerStats(String userId) {
-        return userRepository.findById(userId)
+        return userRepository.findOrganizerStats(userId)
                 .map(user -> new OrganizerDTO(
                         user.getUserId(),
                         user.getUserName(),
@@ -120,17 +189,9 @@ public class UserService {
     }
 
     public Mono<User> updatePlayerStats(String userId, PlayerStatsDTO playerStatsDTO) {
-        return userRepository.findById(userId)
-                .flatMap(user -> {
-                    // Update player stats
-                    user.setTotalScore(playerStatsDTO.getTotalScore());
-                    user.setTotalMatches(playerStatsDTO.getTotalMatches());
-                    user.setHighestScore(playerStatsDTO.getHighestScore());
-                    user.setTotalWickets(playerStatsDTO.getTotalWickets());
-                    user.setHighestWickets(playerStatsDTO.getHighestWickets());
-
-                    return userRepository.save(user);
-                });
+        // Single findAndModify; the password never leaves the database
+        return userRepository.updateCareerStats(userId, playerStatsDTO)
+                .doOnNext(leaderboardService::offer);
     }
 
     public Mono<User> findByUserName(String userName) {
@@ -141,74 +202,186 @@ public class UserService {
         return userRepository.findByUserId(userId);
     }
 
-    // Update the Kafka listener to store messages
-    @KafkaListener(topics = "my-topic", groupId = "my-group", containerFactory = "kafkaListenerContainerFactory")
-    public void listen(PlayerStatsDTO playerStats) {
-        System.out.println("Received Kafka message: " + playerStats);
-        
-        // Store the latest stats
-        latestStats.put(playerStats.getUserId(), playerStats);
-        
-        // Update database
-        userRepository.findById(playerStats.getUserId())
-            .flatMap(user -> {
-                // Update current stats
-                user.setCurrentScore(playerStats.getCurrentScore());
-                user.setCurrentWickets(playerStats.getCurrentWickets());
-                
-                // Update total stats
-                if (playerStats.getCurrentScore() > 0) {
-                    user.setTotalScore(user.getTotalScore() + playerStats.getCurrentScore());
-                }
-                if (playerStats.getCurrentWickets() > 0) {
-                    user.setTotalWickets(user.getTotalWickets() + playerStats.getCurrentWickets());
-                }
-                
-                // Update highest stats if current is higher
-                if (playerStats.getCurrentScore() > user.getHighestScore()) {
-                    user.setHighestScore(playerStats.getCurrentScore());
+    // Batch listener: one poll is coalesced per player and applied with a single bulkWrite.
+    // Events that were already applied are dropped first, so a redelivered batch is not counted twice.
+    // Only started in listener mode; CareerStatsTopology or ReactiveScoreConsumer consume the topic in the others.
+    @KafkaListener(topics = "${players.kafka.topic:my-topic}", groupId = "my-group", containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{'${players.kafka.mode:listener}' == 'listener'}")
+    public void listen(List<PlayerStatsDTO> batch, Acknowledgment ack,
+                       @Header(KafkaHeaders.RECEIVED_TIMESTAMP) List<Long> timestamps,
+                       @Header(KafkaHeaders.RECEIVED_TOPIC) List<String> topics,
+                       @Header(KafkaHeaders.RECEIVED_PARTITION) List<Integer> partitions,
+                       @Header(KafkaHeaders.OFFSET) List<Long> offsets) {
+        Timer.Sample batchTimer = scoreIngestMetrics.startBatch(batch.size());
+        try {
+            List<PlayerStatsDTO> fresh = scoreDeduplicator.fresh(batch, topics, partitions, offsets).block(bulkWriteTimeout);
+            // Block the consumer thread until Mongo has acknowledged every lane. It does not poll meanwhile, so its
+            // partitions stay paused while the writes fall behind. A failure propagates to the container's
+            // error handler and the batch is redelivered
+            applyBatch(fresh).block(bulkWriteTimeout);
+            // The high-water marks move only after the users are written, and the offsets only after the marks
+            scoreDeduplicator.applied(fresh, topics, partitions, offsets).block(bulkWriteTimeout);
+        } catch (RuntimeException e) {
+            scoreIngestMetrics.stopBatch(batchTimer, "error");
+            throw e;
+        }
+        ack.acknowledge();
+        scoreIngestMetrics.stopBatch(batchTimer, "success");
+        scoreIngestMetrics.recordPersisted(timestamps);
+    }
+
+    // Applies a deduplicated batch: live stats, the coalesced bulk writes, then the leaderboards. The listener blocks
+    // on it, ReactiveScoreConsumer chains it. Emits the number of users updated.
+    // The deduplicator's marks are only written after this, so each user also records the offsets it has applied, in
+    // the same update as its totals; a batch redelivered after a crash between the two writes skips those events.
+    public Mono<Integer> applyBatch(List<PlayerStatsDTO> batch) {
+        return Mono.defer(() -> {
+            Collection<String> userIds = new LinkedHashSet<>();
+            for (PlayerStatsDTO playerStats : batch) {
+                // Store the latest stats
+                liveStatsCache.put(playerStats);
+                if (playerStats != null && playerStats.getUserId() != null) {
+                    userIds.add(playerStats.getUserId());
                 }
-                if (playerStats.getCurrentWickets() > user.getHighestWickets()) {
-                    user.setHighestWickets(playerStats.getCurrentWickets());
+            }
+            if (userIds.isEmpty()) {
+                return Mono.just(0);
+            }
+            return userRepository.findAppliedOffsets(userIds)
+                    .collectMap(User::getUserId, user -> user.getAppliedOffsets() != null ? user.getAppliedOffsets() : Map.<String, Long>of())
+                    .flatMap(applied -> writeUnapplied(batch, applied));
+        });
+    }
+
+    // Writes the events each user has not recorded yet; events of unknown users have nothing to update.
+    // A user that moved on meanwhile fails the batch, which is then redelivered and skips what was applied.
+    private Mono<Integer> writeUnapplied(List<PlayerStatsDTO> batch, Map<String, Map<String, Long>> applied) {
+        List<PlayerStatsDTO> unapplied = new ArrayList<>(batch.size());
+        Map<String, Map<String, Long>> firstOffsets = new HashMap<>();
+        Map<String, Map<String, Long>> lastOffsets = new HashMap<>();
+        for (PlayerStatsDTO event : batch) {
+            if (event == null || !applied.containsKey(event.getUserId())) {
+                continue;
+            }
+            if (event.getSource() != null) {
+                Long mark = applied.get(event.getUserId()).get(event.getSource());
+                if (mark != null && event.getSourceOffset() <= mark) {
+                    scoreIngestMetrics.recordDuplicate("user-offset");
+                    continue;
                 }
-                
-                return userRepository.save(user);
-            })
-            .subscribe(savedUser -> {
-                System.out.println("Updated user in database: " + savedUser);
-            });
+                firstOffsets.computeIfAbsent(event.getUserId(), userId -> new HashMap<>())
+                        .merge(event.getSource(), event.getSourceOffset(), Math::min);
+                lastOffsets.computeIfAbsent(event.getUserId(), userId -> new HashMap<>())
+                        .merge(event.getSource(), event.getSourceOffset(), Math::max);
+            }
+            unapplied.add(event);
+        }
+        Map<String, PlayerStatsDTO> deltas = ScoreCoalescer.coalesce(unapplied);
+        if (deltas.isEmpty()) {
+            return Mono.just(0);
+        }
+        return writeDeltas(deltas, lane -> userRepository.applyScoreDeltas(lane, firstOffsets, lastOffsets)
+                        .flatMap(result -> result.getMatchedCount() < lane.size()
+                                ? Mono.error(new RuntimeException((lane.size() - result.getMatchedCount())
+                                        + " users were updated by another consumer during the batch"))
+                                : Mono.just(result)))
+                .doOnNext(modified -> System.out.println("Updated " + modified + " users in database from " + batch.size() + " messages"))
+                // Re-read only the ranked stats of the touched players to move them on the leaderboards.
+                // The batch is already written, so a failure here must not cause a redelivery.
+                .flatMap(modified -> refreshLeaderboards(deltas.keySet()).thenReturn(modified));
+    }
+
+    @Override
+    public void received(PlayerStatsDTO event) {
+        liveStatsCache.put(event);
+    }
+
+    // Called from the stream thread once per commit interval for each of its tasks; a failure leaves the deltas
+    // in the store. Only the bulk write holds up the stream thread, the leaderboards catch up in the background.
+    @Override
+    public void flush(String flushKey, long flushId, Map<String, PlayerStatsDTO> deltas) {
+        Integer modified = writeDeltas(deltas, lane -> userRepository.applyScoreDeltas(lane, flushKey, flushId))
+                .block(bulkWriteTimeout);
+        System.out.println("Flushed career stats of " + deltas.size() + " players, " + modified + " users updated");
+        refreshLeaderboards(deltas.keySet()).subscribe();
+    }
+
+    private Mono<Integer> writeDeltas(Map<String, PlayerStatsDTO> deltas,
+                                      Function<List<PlayerStatsDTO>, Mono<BulkWriteResult>> writeLane) {
+        List<List<PlayerStatsDTO>> lanes = ScoreCoalescer.lanes(deltas.values(), Math.max(1, writeLanes));
+        return Flux.fromIterable(lanes)
+                .flatMap(writeLane, lanes.size())
+                .map(BulkWriteResult::getModifiedCount)
+                .reduce(0, Integer::sum);
+    }
+
+    private Mono<Void> refreshLeaderboards(Collection<String> userIds) {
+        return userRepository.findRankedStats(userIds)
+                .doOnNext(leaderboardService::offer)
+                .onErrorResume(error -> {
+                    System.out.println("Failed to refresh leaderboards: " + error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // In streams mode the stored career stats can be up to one commit interval behind; add what the local store holds
+    private User withPendingCareerStats(User user) {
+        if (careerStatsStreams == null || careerStatsStreams.getKafkaStreams() == null) {
+            return user;
+        }
+        PlayerStatsDTO pending = CareerStatsTopology.pending(careerStatsStreams.getKafkaStreams(), user.getUserId());
+        if (pending != null) {
+            user.setTotalScore(user.getTotalScore() + pending.getTotalScore());
+            user.setTotalWickets(user.getTotalWickets() + pending.getTotalWickets());
+            user.setHighestScore(Math.max(user.getHighestScore(), pending.getHighestScore()));
+            user.setHighestWickets(Math.max(user.getHighestWickets(), pending.getHighestWickets()));
+        }
+        return user;
     }
 
     public Mono<List<PlayerStatsDTO>> getAllPlayerStats() {
-        return userRepository.findAll()
-            .map(user -> new PlayerStatsDTO(
-                user.getUserId(),
-                user.getUserName(),
-                user.getTotalScore(),
-                user.getTotalWickets(),
-                user.getTotalMatches(),
-                user.getHighestScore(),
-                user.getHighestWickets(),
-                user.getCurrentScore(),  // Now including current score
-                user.getCurrentWickets() // Now including current wickets
-            ))
-            .collectList()
-            .map(currentStats -> {
-                List<PlayerStatsDTO> allStats = new ArrayList<>(currentStats);
-                synchronized (latestStats) {
-                    // Add only the most recent stats for each user
-                    Map<String, PlayerStatsDTO> latestStats = new HashMap<>();
-                    for (PlayerStatsDTO stat : latestStats.values()) {
-                        latestStats.put(stat.getUserId(), stat);
-                    }
-                    allStats.addAll(latestStats.values());
-                }
-                return allStats;
-            });
+        return Mono.fromSupplier(liveStatsCache::snapshot)
+            .flatMap(live -> userRepository.findAll()
+                .map(user -> withLiveStats(withPendingCareerStats(user), live.get(user.getUserId())))
+                .collectList());
+    }
+
+    // Current values come from the latest live update when there is one, otherwise from the stored user
+    public static PlayerStatsDTO withLiveStats(User user, PlayerStatsDTO live) {
+        return new PlayerStatsDTO(
+            user.getUserId(),
+            user.getUserName(),
+            user.getTotalScore(),
+            user.getTotalWickets(),
+            user.getTotalMatches(),
+            user.getHighestScore(),
+            user.getHighestWickets(),
+            live != null ? live.getCurrentScore() : user.getCurrentScore(),
+            live != null ? live.getCurrentWickets() : user.getCurrentWickets()
+        );
+    }
+
+    // Latest live update of every player in one match
+    public List<PlayerStatsDTO> getLiveMatchStats(String matchCode) {
+        return liveStatsCache.snapshotForMatch(matchCode);
+    }
+
+    // Frees a finished match's live stats instead of waiting for them to expire
+    public void endLiveMatch(String matchCode) {
+        liveStatsCache.evictMatch(matchCode);
+    }
+
+    // Streaming variant of getAllPlayerStats: nothing is collected, each user is written as soon as it is read
+    public Flux<PlayerStatsDTO> streamAllPlayerStats() {
+        return userRepository.streamAll(statsCursorBatchSize)
+            .limitRate(statsCursorBatchSize)
+            .map(user -> withLiveStats(withPendingCareerStats(user), liveStatsCache.get(user.getUserId())));
     }
 
     public Mono<List<PlayerStatsDTO>> getPlayerStatsByUserId(String userId) {
-        return userRepository.findById(userId)
+        return userRepository.findPlayerStats(userId)
+            .map(this::withPendingCareerStats)
             .map(user -> {
                 PlayerStatsDTO currentStats = new PlayerStatsDTO(
                     user.getUserId(),
@@ -225,11 +398,9 @@ public class UserService {
                 List<PlayerStatsDTO> allStats = new ArrayList<>();
                 allStats.add(currentStats);
 
-                synchronized (latestStats) {
-                    List<PlayerStatsDTO> userStats = latestStats.values().stream()
-                        .filter(stats -> stats.getUserId().equals(userId))
-                        .collect(Collectors.toList());
-                    allStats.addAll(userStats);
+                PlayerStatsDTO live = liveStatsCache.get(userId);
+                if (live != null) {
+                    allStats.add(live);
                 }
 
                 return allStats;
@@ -237,23 +408,11 @@ public class UserService {
     }
 
     public Mono<PlayerStatsDTO> savePlayerStats(PlayerStatsDTO playerStatsDTO) {
-        return userRepository.findById(playerStatsDTO.getUserId())
-            .flatMap(user -> {
-                user.setCurrentScore(playerStatsDTO.getCurrentScore());
-                user.setCurrentWickets(playerStatsDTO.getCurrentWickets());
-                user.setTotalScore(user.getTotalScore() + playerStatsDTO.getCurrentScore());
-                user.setTotalWickets(user.getTotalWickets() + playerStatsDTO.getCurrentWickets());
-                
-                if (playerStatsDTO.getCurrentScore() > user.getHighestScore()) {
-                    user.setHighestScore(playerStatsDTO.getCurrentScore());
-                }
-                if (playerStatsDTO.getCurrentWickets() > user.getHighestWickets()) {
-                    user.setHighestWickets(playerStatsDTO.getCurrentWickets());
-                }
-                
-                return userRepository.save(user);
-            })
-            .map(user -> playerStatsDTO);
+        // Atomic $inc/$max/$set, so concurrent deliveries for the same player cannot lose updates
+        return userRepository.applyScore(playerStatsDTO.getUserId(),
+                playerStatsDTO.getCurrentScore(), playerStatsDTO.getCurrentWickets())
+            .filter(found -> found)
+            .map(found -> playerStatsDTO);
     }
 
 }
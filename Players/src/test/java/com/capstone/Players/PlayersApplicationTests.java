@@ -3,7 +3,7 @@ package com.capstone.Players;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "ids.node-id=0")
 class PlayersApplicationTests {
 
 	@Test
@@ -0,0 +1,140 @@
+package com.capstone.Players.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.wireformat.WireFormat;
+
+// Round trips and size of a score event in the binary format against the JSON path it replaces.
+// Ser/de cost is measured by ScoreEventSerdeBenchmark in the benchmarks module.
+class PlayerStatsWireFormatTests {
+
+    private static final String TOPIC = "my-topic";
+    private static final int EVENTS = 1_000;
+
+    @Test
+    void binaryRoundTripsAndIsSmallerThanJson() {
+        JsonSerializer<ProducerPlayerStats> jsonSerializer = new JsonSerializer<>();
+        JsonDeserializer<PlayerStatsDTO> jsonDeserializer = new JsonDeserializer<>(PlayerStatsDTO.class, false);
+        PlayerStatsBinarySerializer binarySerializer = new PlayerStatsBinarySerializer();
+        PlayerStatsBinaryDeserializer binaryDeserializer = new PlayerStatsBinaryDeserializer();
+
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        for (int i = 0; i < EVENTS; i++) {
+            ProducerPlayerStats event = new ProducerPlayerStats("UID-" + (1000 + i % 9000), "Player " + (i % 500),
+                    i % 120, i % 6, "M" + (i % 300));
+            RecordHeaders headers = new RecordHeaders();
+            byte[] json = jsonSerializer.serialize(TOPIC, headers, event);
+            jsonBytes += json.length + headerBytes(headers);
+
+            byte[] binary = binarySerializer.serialize(TOPIC, event.toDto());
+            binaryBytes += binary.length;
+
+            assertSameEvent(jsonDeserializer.deserialize(TOPIC, json), event);
+            assertSameEvent(binaryDeserializer.deserialize(TOPIC, binary), event);
+        }
+
+        assertThat(binaryBytes * 3).isLessThan(jsonBytes);
+    }
+
+    @Test
+    void jsonEventsAreStillReadByTheBinaryDeserializer() {
+        ProducerPlayerStats event = new ProducerPlayerStats("UID-4242", "Fallback", 37, 2, "AbC12");
+        byte[] json = new JsonSerializer<ProducerPlayerStats>().serialize(TOPIC, event);
+
+        assertSameEvent(new PlayerStatsBinaryDeserializer().deserialize(TOPIC, json), event);
+    }
+
+    @Test
+    void eventIdRoundTripsAndVersion1EventsAreStillRead() {
+        PlayerStatsDTO dto = new ProducerPlayerStats("UID-4242", "Ids", 12, 1, "AbC12").toDto();
+        dto.setEventId(7_205_759_403_792_793_600L);
+        PlayerStatsDTO read = new PlayerStatsBinaryDeserializer().deserialize(TOPIC,
+                new PlayerStatsBinarySerializer().serialize(TOPIC, dto));
+        assertThat(read.getEventId()).isEqualTo(dto.getEventId());
+
+        // What producers wrote before event ids existed
+        byte[] version1 = new WireFormat.Writer(64)
+                .writeByte(WireFormat.VERSION_1)
+                .writeString(WireFormat.utf8("UID-4242"))
+                .writeString(WireFormat.utf8("Ids"))
+                .writeInt(12)
+                .writeInt(1)
+                .writeString(WireFormat.utf8("AbC12"))
+                .toByteArray();
+        PlayerStatsDTO old = new PlayerStatsBinaryDeserializer().deserialize(TOPIC, version1);
+        assertThat(old.getCurrentScore()).isEqualTo(12);
+        assertThat(old.getMatchCode()).isEqualTo("AbC12");
+        assertThat(old.getEventId()).isZero();
+    }
+
+    private static long headerBytes(RecordHeaders headers) {
+        long bytes = 0;
+        for (Header header : headers) {
+            bytes += header.key().length() + header.value().length;
+        }
+        return bytes;
+    }
+
+    private static void assertSameEvent(PlayerStatsDTO actual, ProducerPlayerStats expected) {
+        assertThat(actual.getUserId()).isEqualTo(expected.getPlayerId());
+        assertThat(actual.getUserName()).isEqualTo(expected.getPlayerName());
+        assertThat(actual.getCurrentScore()).isEqualTo(expected.getRunsScored());
+        assertThat(actual.getCurrentWickets()).isEqualTo(expected.getWicketsTaken());
+        assertThat(actual.getMatchCode()).isEqualTo(expected.getMatchCode());
+    }
+
+    // Same JSON shape as cricketmatch's PlayerStats, which is what the JSON path carries today
+    static class ProducerPlayerStats {
+        private final String playerId;
+        private final String playerName;
+        private final int runsScored;
+        private final int wicketsTaken;
+        private final String matchCode;
+
+        ProducerPlayerStats(String playerId, String playerName, int runsScored, int wicketsTaken, String matchCode) {
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.runsScored = runsScored;
+            this.wicketsTaken = wicketsTaken;
+            this.matchCode = matchCode;
+        }
+
+        public String getPlayerId() {
+            return playerId;
+        }
+
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        public int getRunsScored() {
+            return runsScored;
+        }
+
+        public int getWicketsTaken() {
+            return wicketsTaken;
+        }
+
+        public String getMatchCode() {
+            return matchCode;
+        }
+
+        PlayerStatsDTO toDto() {
+            PlayerStatsDTO dto = new PlayerStatsDTO();
+            dto.setUserId(playerId);
+            dto.setUserName(playerName);
+            dto.setCurrentScore(runsScored);
+            dto.setCurrentWickets(wicketsTaken);
+            dto.setMatchCode(matchCode);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.capstone.Players.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class BatchLoaderTests {
+
+    @Test
+    void concurrentLoadsShareOneDeduplicatedBatch() {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        BatchLoader<String> loader = new BatchLoader<>(keys -> {
+            batches.add(keys);
+            return Flux.fromIterable(keys).filter(key -> !key.equals("missing")).map(key -> key + "!");
+        }, value -> value.substring(0, value.length() - 1), 100, Duration.ofMillis(50), 4);
+
+        List<String> results = Flux.merge(
+                        loader.load("a").defaultIfEmpty("none"),
+                        loader.load("b").defaultIfEmpty("none"),
+                        loader.load("a").defaultIfEmpty("none"),
+                        loader.load("missing").defaultIfEmpty("none"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(results).containsExactlyInAnyOrder("a!", "b!", "a!", "none");
+        assertThat(batches).containsExactly(List.of("a", "b", "missing"));
+    }
+
+    @Test
+    void aFullBatchIsSentWithoutWaitingAndErrorsReachEveryCaller() {
+        BatchLoader<String> loader = new BatchLoader<>(keys -> Flux.error(new RuntimeException("down")),
+                value -> value, 2, Duration.ofMinutes(1), 4);
+
+        List<String> results = Flux.merge(
+                        loader.load("a").onErrorResume(error -> Mono.just(error.getMessage())),
+                        loader.load("b").onErrorResume(error -> Mono.just(error.getMessage())))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(results).containsExactly("down", "down");
+    }
+}
@@ -0,0 +1,184 @@
+package com.capstone.Players.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.serialization.PlayerStatsBinarySerializer;
+
+// Drives the career-stats topology without a broker: events in, store contents and flushes out. The sink stands in
+// for Mongo with the same once-per-flush-id rule as UserRepositoryCustomImpl.applyScoreDeltas.
+class CareerStatsTopologyTests {
+
+    private static final String TOPIC = "my-topic";
+    private static final Duration FLUSH_INTERVAL = Duration.ofSeconds(10);
+
+    @TempDir
+    Path stateDir;
+
+    private final List<PlayerStatsDTO> received = new ArrayList<>();
+    private final List<Map<String, PlayerStatsDTO>> flushes = new ArrayList<>();
+    private final List<Long> flushIds = new ArrayList<>();
+    private final Map<String, Integer> careerScores = new HashMap<>();
+    private final Map<String, Long> appliedFlushIds = new HashMap<>();
+    private boolean failFlushes;
+    private boolean failAfterWriting;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, PlayerStatsDTO> scores;
+    private KeyValueStore<String, PlayerStatsDTO> store;
+    private KeyValueStore<String, PlayerStatsDTO> flushing;
+
+    @BeforeEach
+    void setUp() {
+        CareerStatsSink sink = new CareerStatsSink() {
+            @Override
+            public void received(PlayerStatsDTO event) {
+                received.add(event);
+            }
+
+            @Override
+            public void flush(String flushKey, long flushId, Map<String, PlayerStatsDTO> deltas) {
+                if (failFlushes) {
+                    throw new RuntimeException("Mongo unavailable");
+                }
+                flushIds.add(flushId);
+                deltas.forEach((userId, delta) -> {
+                    Long applied = appliedFlushIds.get(flushKey + "/" + userId);
+                    if (applied == null || applied < flushId) {
+                        careerScores.merge(userId, delta.getTotalScore(), Integer::sum);
+                        appliedFlushIds.put(flushKey + "/" + userId, flushId);
+                    }
+                });
+                if (failAfterWriting) {
+                    // Written, but the acknowledgement is lost, as when the process dies before the commit
+                    throw new RuntimeException("Timed out waiting for Mongo");
+                }
+                flushes.add(deltas);
+            }
+        };
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "career-stats-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, StreamsConfig.EXACTLY_ONCE_V2);
+        driver = new TopologyTestDriver(new CareerStatsTopology(TOPIC, FLUSH_INTERVAL, sink).build(), props);
+        scores = driver.createInputTopic(TOPIC, new StringSerializer(), new PlayerStatsBinarySerializer());
+        store = driver.getKeyValueStore(CareerStatsTopology.STORE);
+        flushing = driver.getKeyValueStore(CareerStatsTopology.FLUSHING_STORE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void aggregatesPerPlayerAcrossMatchesUntilTheFlushInterval() {
+        scores.pipeInput("M1", event("UID-a", 30, 0, "M1"));
+        scores.pipeInput("M1", event("UID-b", 0, 2, "M1"));
+        scores.pipeInput("M2", event("UID-a", 50, 1, "M2"));
+
+        PlayerStatsDTO a = store.get("UID-a");
+        assertThat(a.getTotalScore()).isEqualTo(80);
+        assertThat(a.getHighestScore()).isEqualTo(50);
+        assertThat(a.getTotalWickets()).isEqualTo(1);
+        assertThat(a.getCurrentScore()).isEqualTo(50);
+        assertThat(store.get("UID-b").getTotalWickets()).isEqualTo(2);
+        assertThat(received).hasSize(3);
+        assertThat(flushes).isEmpty();
+
+        // The first interval hands the deltas over and commits them, the next writes them
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        assertThat(flushes).isEmpty();
+        assertThat(store.get("UID-a")).isNull();
+        assertThat(flushing.get("UID-a").getTotalScore()).isEqualTo(80);
+
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+
+        assertThat(flushes).hasSize(1);
+        assertThat(flushes.get(0)).containsOnlyKeys("UID-a", "UID-b");
+        assertThat(flushes.get(0).get("UID-a").getTotalScore()).isEqualTo(80);
+        assertThat(flushing.get("UID-a")).isNull();
+        assertThat(flushing.get("UID-b")).isNull();
+    }
+
+    @Test
+    void keepsDeltasWhenAFlushFails() {
+        scores.pipeInput("M1", event("UID-a", 30, 0, "M1"));
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        failFlushes = true;
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        assertThat(flushing.get("UID-a").getTotalScore()).isEqualTo(30);
+
+        // Deltas keep accumulating behind the failed batch, which is retried on its own
+        scores.pipeInput("M1", event("UID-a", 4, 0, "M1"));
+        failFlushes = false;
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+
+        assertThat(flushes).hasSize(2);
+        assertThat(flushes.get(0).get("UID-a").getTotalScore()).isEqualTo(30);
+        assertThat(flushes.get(1).get("UID-a").getTotalScore()).isEqualTo(4);
+        assertThat(careerScores).containsEntry("UID-a", 34);
+        assertThat(store.get("UID-a")).isNull();
+        assertThat(flushing.get("UID-a")).isNull();
+    }
+
+    @Test
+    void retriesAWrittenButFailedFlushWithTheSameIdSoItCountsOnce() {
+        scores.pipeInput("M1", event("UID-a", 30, 0, "M1"));
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        failAfterWriting = true;
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        assertThat(careerScores).containsEntry("UID-a", 30);
+        assertThat(flushing.get("UID-a").getTotalScore()).isEqualTo(30);
+
+        scores.pipeInput("M1", event("UID-a", 4, 0, "M1"));
+        failAfterWriting = false;
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+
+        // The retry carried the same id, so only the later batch added anything
+        assertThat(flushIds).hasSize(3);
+        assertThat(flushIds.get(1)).isEqualTo(flushIds.get(0));
+        assertThat(flushIds.get(2)).isGreaterThan(flushIds.get(1));
+        assertThat(careerScores).containsEntry("UID-a", 34);
+    }
+
+    @Test
+    void skipsEventsWithoutAPlayer() {
+        scores.pipeInput("M1", event(null, 30, 0, "M1"));
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+
+        assertThat(received).isEmpty();
+        assertThat(flushes).isEmpty();
+    }
+
+    private static PlayerStatsDTO event(String userId, int score, int wickets, String matchCode) {
+        PlayerStatsDTO event = new PlayerStatsDTO();
+        event.setUserId(userId);
+        event.setUserName(userId);
+        event.setCurrentScore(score);
+        event.setCurrentWickets(wickets);
+        event.setMatchCode(matchCode);
+        return event;
+    }
+}
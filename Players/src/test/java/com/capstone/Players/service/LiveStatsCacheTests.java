@@ -0,0 +1,52 @@
+package com.capstone.Players.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LiveStatsCacheTests {
+
+    private final LiveStatsCache cache = new LiveStatsCache(1000, Duration.ofHours(1), new SimpleMeterRegistry());
+
+    @Test
+    void aMatchListsOnlyPlayersWhoseLatestEventIsInIt() {
+        cache.put(event("u1", "m1", 10));
+        cache.put(event("u2", "m1", 20));
+        cache.put(event("u3", "m2", 30));
+        // u2 moves on to the next match
+        cache.put(event("u2", "m2", 5));
+
+        assertThat(cache.snapshotForMatch("m1")).extracting(PlayerStatsDTO::getUserId).containsExactly("u1");
+        assertThat(cache.snapshotForMatch("m2")).extracting(PlayerStatsDTO::getUserId)
+                .containsExactlyInAnyOrder("u2", "u3");
+        assertThat(cache.snapshotForMatch("m3")).isEmpty();
+    }
+
+    @Test
+    void evictingAMatchKeepsPlayersWhoMovedToAnother() {
+        cache.put(event("u1", "m1", 10));
+        cache.put(event("u2", "m1", 20));
+        cache.put(event("u2", "m2", 5));
+
+        cache.evictMatch("m1");
+
+        assertThat(cache.get("u1")).isNull();
+        assertThat(cache.get("u2").getMatchCode()).isEqualTo("m2");
+        assertThat(cache.snapshotForMatch("m1")).isEmpty();
+        assertThat(cache.snapshotForMatch("m2")).extracting(PlayerStatsDTO::getUserId).containsExactly("u2");
+    }
+
+    private static PlayerStatsDTO event(String userId, String matchCode, int runs) {
+        PlayerStatsDTO event = new PlayerStatsDTO();
+        event.setUserId(userId);
+        event.setMatchCode(matchCode);
+        event.setCurrentScore(runs);
+        return event;
+    }
+}
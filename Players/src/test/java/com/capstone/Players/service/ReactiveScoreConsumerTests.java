@@ -0,0 +1,139 @@
+package com.capstone.Players.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+
+class ReactiveScoreConsumerTests {
+
+    private static final String TOPIC = "scores";
+
+    private final Map<Integer, AtomicInteger> writing = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> mostWritingAtOnce = new ConcurrentHashMap<>();
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final Set<String> marked = ConcurrentHashMap.newKeySet();
+    private final List<String> committed = new CopyOnWriteArrayList<>();
+
+    @Test
+    void aFailedBatchStopsItsPartitionAndEveryWrittenBatchIsMarked() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReactiveScoreConsumer consumer = new ReactiveScoreConsumer(ReceiverOptions.create(Map.of()),
+                new SlowUserService(), new RecordingDeduplicator(registry), new ScoreIngestMetrics(registry),
+                2, Duration.ofMinutes(1), Duration.ofSeconds(5));
+
+        List<ReceiverRecord<String, PlayerStatsDTO>> records = new ArrayList<>();
+        for (int offset = 0; offset < 6; offset++) {
+            records.add(record(0, offset));
+            records.add(record(1, offset));
+        }
+
+        assertThatThrownBy(() -> consumer.process(Flux.fromIterable(records)).blockLast(Duration.ofSeconds(10)))
+                .hasMessageContaining("Mongo down");
+
+        // Partition 0 failed on its second batch, so its third was never written
+        assertThat(written).contains("0@0").doesNotContain("0@4");
+        // One batch per partition at a time, so a player's updates cannot overtake each other
+        assertThat(mostWritingAtOnce.values()).containsOnly(1);
+        // Whatever was written is marked as applied, committed or not, so a retry from the committed offsets skips it
+        assertThat(marked).containsAll(written);
+        assertThat(committed).doesNotContain("0@3");
+    }
+
+    private ReceiverRecord<String, PlayerStatsDTO> record(int partition, long offset) {
+        PlayerStatsDTO event = new PlayerStatsDTO();
+        event.setUserId("user" + partition);
+        event.setMatchCode(partition + "@" + offset);
+        return new ReceiverRecord<>(new ConsumerRecord<>(TOPIC, partition, offset, "match" + partition, event),
+                new Offset(new TopicPartition(TOPIC, partition), offset));
+    }
+
+    private class SlowUserService extends UserService {
+        @Override
+        public Mono<Integer> applyBatch(List<PlayerStatsDTO> batch) {
+            int partition = Integer.parseInt(batch.get(0).getMatchCode().split("@")[0]);
+            return Mono.defer(() -> {
+                        int now = writing.computeIfAbsent(partition, p -> new AtomicInteger()).incrementAndGet();
+                        mostWritingAtOnce.merge(partition, now, Math::max);
+                        return Mono.delay(Duration.ofMillis(50));
+                    })
+                    .flatMap(tick -> {
+                        writing.get(partition).decrementAndGet();
+                        // Partition 0's second batch fails once partition 1 has had time to write ahead
+                        if (batch.get(0).getMatchCode().equals("0@2")) {
+                            return Mono.error(new RuntimeException("Mongo down"));
+                        }
+                        batch.forEach(event -> written.add(event.getMatchCode()));
+                        return Mono.just(batch.size());
+                    });
+        }
+    }
+
+    private class RecordingDeduplicator extends ScoreDeduplicator {
+        RecordingDeduplicator(SimpleMeterRegistry registry) {
+            super(1000, 0.001, registry);
+        }
+
+        @Override
+        public Mono<List<PlayerStatsDTO>> fresh(List<PlayerStatsDTO> batch, List<String> topics,
+                                                List<Integer> partitions, List<Long> offsets) {
+            return Mono.just(batch);
+        }
+
+        @Override
+        public Mono<Void> applied(List<PlayerStatsDTO> fresh, List<String> topics, List<Integer> partitions,
+                                  List<Long> offsets) {
+            return Mono.fromRunnable(() -> fresh.forEach(event -> marked.add(event.getMatchCode())));
+        }
+    }
+
+    private class Offset implements ReceiverOffset {
+        private final TopicPartition topicPartition;
+        private final long offset;
+
+        Offset(TopicPartition topicPartition, long offset) {
+            this.topicPartition = topicPartition;
+            this.offset = offset;
+        }
+
+        @Override
+        public TopicPartition topicPartition() {
+            return topicPartition;
+        }
+
+        @Override
+        public long offset() {
+            return offset;
+        }
+
+        @Override
+        public void acknowledge() {
+        }
+
+        @Override
+        public Mono<Void> commit() {
+            return Mono.fromRunnable(() -> committed.add(topicPartition.partition() + "@" + offset));
+        }
+    }
+}
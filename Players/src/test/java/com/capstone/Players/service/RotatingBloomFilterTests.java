@@ -0,0 +1,37 @@
+package com.capstone.Players.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RotatingBloomFilterTests {
+
+    @Test
+    void remembersTheWindowAndForgetsWhatRotatedOut() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(2, 10_000, 0.0001);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.add(id);
+        }
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(filter.mightContain(id)).isTrue();
+        }
+
+        // A full generation later the first ids are still there; one more and they are cleared
+        for (long id = 10_001; id <= 20_000; id++) {
+            filter.add(id);
+        }
+        assertThat(filter.mightContain(1)).isTrue();
+        filter.add(20_001);
+        assertThat(filter.mightContain(1)).isFalse();
+        assertThat(filter.mightContain(20_000)).isTrue();
+
+        int falsePositives = 0;
+        for (long id = 1_000_000; id < 1_100_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        // 0.0001 over 100k lookups is 10 expected; leave room for chance
+        assertThat(falsePositives).isLessThan(40);
+    }
+}
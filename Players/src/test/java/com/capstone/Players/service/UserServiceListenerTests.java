@@ -0,0 +1,123 @@
+package com.capstone.Players.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.capstone.Players.config.KafkaConsumerConfig;
+import com.capstone.Players.dto.PlayerStatsDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.publisher.Mono;
+
+// The batch listener in listener mode: what it writes, and when it lets the container commit the offsets
+class UserServiceListenerTests {
+
+    private static final String TOPIC = "my-topic";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> steps = new CopyOnWriteArrayList<>();
+    private volatile boolean failWrites;
+
+    @Test
+    void aWrittenBatchIsMarkedAndThenAcknowledged() {
+        UserService userService = userService();
+
+        userService.listen(List.of(event("u1", "a"), event("u2", "dup"), event("u1", "b")), () -> steps.add("ack"),
+                List.of(1L, 2L, 3L), List.of(TOPIC, TOPIC, TOPIC), List.of(0, 0, 0), List.of(10L, 11L, 12L));
+
+        // The already applied event is not written again, and the offsets go only after the marks
+        assertThat(steps).containsExactly("write a,b", "mark a,b", "ack");
+        assertThat(registry.get("players.score.batch").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void aFailedWriteLeavesTheBatchUnacknowledgedForRedelivery() {
+        UserService userService = userService();
+        failWrites = true;
+
+        assertThatThrownBy(() -> userService.listen(List.of(event("u1", "a")), () -> steps.add("ack"),
+                List.of(1L), List.of(TOPIC), List.of(0), List.of(10L)))
+                .hasMessageContaining("Mongo down");
+
+        assertThat(steps).containsExactly("write a");
+        assertThat(registry.get("players.score.batch").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void theContainerHandsOverWholePollsAndLeavesTheCommitToTheListener() {
+        KafkaConsumerConfig config = new KafkaConsumerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+        ReflectionTestUtils.setField(config, "maxPollRecords", 500);
+        ReflectionTestUtils.setField(config, "fetchMaxWaitMs", 100);
+        ReflectionTestUtils.setField(config, "concurrency", 1);
+        ReflectionTestUtils.setField(config, "valueFormat", "binary");
+        ReflectionTestUtils.setField(config, "meterRegistry", registry);
+        ReflectionTestUtils.setField(config, "scoreDeduplicator", new ScoreDeduplicator(1000, 0.001, registry));
+
+        ConcurrentKafkaListenerContainerFactory<String, PlayerStatsDTO> factory = config.kafkaListenerContainerFactory();
+
+        assertThat(factory.isBatchListener()).isTrue();
+        assertThat(factory.getContainerProperties().getAckMode()).isEqualTo(ContainerProperties.AckMode.MANUAL);
+        assertThat(factory.getConsumerFactory().getConfigurationProperties())
+                .containsEntry(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    }
+
+    private UserService userService() {
+        UserService userService = new RecordingUserService();
+        ReflectionTestUtils.setField(userService, "scoreIngestMetrics", new ScoreIngestMetrics(registry));
+        ReflectionTestUtils.setField(userService, "scoreDeduplicator", new RecordingDeduplicator());
+        ReflectionTestUtils.setField(userService, "bulkWriteTimeout", Duration.ofSeconds(5));
+        return userService;
+    }
+
+    private static PlayerStatsDTO event(String userId, String matchCode) {
+        PlayerStatsDTO event = new PlayerStatsDTO();
+        event.setUserId(userId);
+        event.setMatchCode(matchCode);
+        return event;
+    }
+
+    private static String codes(List<PlayerStatsDTO> batch) {
+        return String.join(",", batch.stream().map(PlayerStatsDTO::getMatchCode).toList());
+    }
+
+    private class RecordingUserService extends UserService {
+        @Override
+        public Mono<Integer> applyBatch(List<PlayerStatsDTO> batch) {
+            return Mono.defer(() -> {
+                steps.add("write " + codes(batch));
+                return failWrites ? Mono.error(new RuntimeException("Mongo down")) : Mono.just(batch.size());
+            });
+        }
+    }
+
+    // Treats events with match code "dup" as applied before
+    private class RecordingDeduplicator extends ScoreDeduplicator {
+        RecordingDeduplicator() {
+            super(1000, 0.001, registry);
+        }
+
+        @Override
+        public Mono<List<PlayerStatsDTO>> fresh(List<PlayerStatsDTO> batch, List<String> topics,
+                                                List<Integer> partitions, List<Long> offsets) {
+            return Mono.just(batch.stream().filter(event -> !event.getMatchCode().equals("dup")).toList());
+        }
+
+        @Override
+        public Mono<Void> applied(List<PlayerStatsDTO> fresh, List<String> topics, List<Integer> partitions,
+                                  List<Long> offsets) {
+            return Mono.fromRunnable(() -> steps.add("mark " + codes(fresh)));
+        }
+    }
+}
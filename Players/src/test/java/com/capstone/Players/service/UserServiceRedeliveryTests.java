@@ -0,0 +1,144 @@
+package com.capstone.Players.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.model.User;
+import com.capstone.Players.repository.ScoreOffsetRepository;
+import com.capstone.Players.repository.ScoreOffsetRepositoryCustomImpl;
+import com.capstone.Players.repository.UserRepository;
+import com.capstone.Players.repository.UserRepositoryCustomImpl;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.publisher.Mono;
+
+// Runs against an in-memory Mongo: a batch whose users were written but whose marks were not must come back
+// without adding to the totals again
+class UserServiceRedeliveryTests {
+
+    private static final String TOPIC = "scores.v2";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger acks = new AtomicInteger();
+    private volatile boolean failMarks;
+    private MongoServer server;
+    private MongoClient client;
+    private UserRepository userRepository;
+    private ScoreOffsetRepository scoreOffsetRepository;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create("mongodb://" + server.bindAndGetConnectionString().split("//")[1]);
+        ReactiveMongoTemplate mongoTemplate = new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(client, "players"));
+        ReactiveMongoRepositoryFactory factory = new ReactiveMongoRepositoryFactory(mongoTemplate);
+        userRepository = factory.getRepository(UserRepository.class,
+                RepositoryFragments.just(new UserRepositoryCustomImpl(mongoTemplate)));
+        scoreOffsetRepository = factory.getRepository(ScoreOffsetRepository.class,
+                RepositoryFragments.just(new ScoreOffsetRepositoryCustomImpl(mongoTemplate) {
+                    @Override
+                    public Mono<BulkWriteResult> advance(Map<TopicPartition, Long> offsets) {
+                        return failMarks ? Mono.error(new RuntimeException("Mongo down")) : super.advance(offsets);
+                    }
+                }));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void aBatchWrittenButNotMarkedIsNotCountedAgainOnRedelivery() {
+        userRepository.save(user("u1")).block();
+        userRepository.save(user("u2")).block();
+
+        failMarks = true;
+        assertThatThrownBy(() -> listen(userService(),
+                List.of(event("u1", 4, 1L), event("u2", 6, 2L), event("u1", 10, 3L))))
+                .hasMessageContaining("Mongo down");
+        assertThat(totalScore("u1")).isEqualTo(14);
+        assertThat(acks).hasValue(0);
+
+        // The partition moves to a fresh instance, which gets the same records again plus a new one
+        failMarks = false;
+        listen(userService(), List.of(event("u1", 4, 1L), event("u2", 6, 2L), event("u1", 10, 3L), event("u2", 1, 4L)));
+
+        assertThat(totalScore("u1")).isEqualTo(14);
+        assertThat(totalScore("u2")).isEqualTo(7);
+        assertThat(acks).hasValue(1);
+        assertThat(registry.get("players.score.duplicates").tag("reason", "user-offset").counter().count()).isEqualTo(3);
+    }
+
+    private UserService userService() {
+        ScoreIngestMetrics metrics = new ScoreIngestMetrics(registry);
+        ScoreDeduplicator deduplicator = new ScoreDeduplicator(1000, 0.001, registry);
+        ReflectionTestUtils.setField(deduplicator, "scoreOffsetRepository", scoreOffsetRepository);
+        ReflectionTestUtils.setField(deduplicator, "scoreIngestMetrics", metrics);
+        LeaderboardService leaderboardService = new LeaderboardService();
+        ReflectionTestUtils.setField(leaderboardService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(leaderboardService, "capacity", 10);
+
+        UserService userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "leaderboardService", leaderboardService);
+        ReflectionTestUtils.setField(userService, "liveStatsCache", new LiveStatsCache(1000, Duration.ofHours(1), registry));
+        ReflectionTestUtils.setField(userService, "scoreIngestMetrics", metrics);
+        ReflectionTestUtils.setField(userService, "scoreDeduplicator", deduplicator);
+        ReflectionTestUtils.setField(userService, "bulkWriteTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(userService, "writeLanes", 2);
+        return userService;
+    }
+
+    // One partition, offsets counting up from 10
+    private void listen(UserService userService, List<PlayerStatsDTO> batch) {
+        int size = batch.size();
+        userService.listen(batch, acks::incrementAndGet, Collections.nCopies(size, 1L), Collections.nCopies(size, TOPIC),
+                Collections.nCopies(size, 0), LongStream.range(10, 10 + size).boxed().toList());
+    }
+
+    private int totalScore(String userId) {
+        return userRepository.findById(userId).block().getTotalScore();
+    }
+
+    private static User user(String userId) {
+        User user = new User();
+        user.setUserId(userId);
+        user.setUserName("Player " + userId);
+        return user;
+    }
+
+    private static PlayerStatsDTO event(String userId, int runs, long eventId) {
+        PlayerStatsDTO event = new PlayerStatsDTO();
+        event.setUserId(userId);
+        event.setCurrentScore(runs);
+        event.setMatchCode("m1");
+        event.setEventId(eventId);
+        return event;
+    }
+}
@@ -0,0 +1,126 @@
+package com.capstone.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.capstone.Players.model.User;
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.PlayerStats;
+import com.capstone.ids.SnowflakeIdAllocator;
+
+// Id/code generation, the Match <-> BSON mapping Spring Data does on every match read and write, and the User read
+// behind the profile endpoints with and without their field projection
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityBenchmark {
+
+    private SnowflakeIdAllocator idAllocator;
+    private MappingMongoConverter converter;
+    private Match match;
+    private Document matchDocument;
+    private Document userDocument;
+    private Document battingStatsDocument;
+
+    @Setup
+    public void setUp() {
+        idAllocator = new SnowflakeIdAllocator(1);
+
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+
+        match = new Match(1234L, "Chennai Kings", "Mumbai Indians", new Date(), "Chennai", 11);
+        match.setCode(idAllocator.toCode(match.getId()));
+        List<PlayerStats> playerStats = new ArrayList<>();
+        for (int i = 0; i < 22; i++) {
+            PlayerStats stats = new PlayerStats("UID-" + (1000 + i), "Player " + i, i * 3, i % 3);
+            stats.setMatchCode(match.getCode());
+            playerStats.add(stats);
+        }
+        match.setPlayerStats(playerStats);
+
+        matchDocument = new Document();
+        converter.write(match, matchDocument);
+
+        User user = new User("Player 7", "player7@example.com", "PLAYER");
+        user.setUserId("UID-1007");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1zW1V8mJ5g4a1sT7tCqk1rK");
+        user.setTotalScore(4210);
+        user.setTotalMatches(96);
+        user.setHighestScore(142);
+        user.setTotalWickets(38);
+        user.setHighestWickets(4);
+        userDocument = new Document();
+        converter.write(user, userDocument);
+        // What findBattingStats gets back from Mongo
+        battingStatsDocument = new Document("_id", userDocument.get("_id"));
+        for (String field : List.of("userName", "totalScore", "totalMatches", "highestScore")) {
+            battingStatsDocument.put(field, userDocument.get(field));
+        }
+    }
+
+    @Benchmark
+    public String userGenerateCode() {
+        return User.generateCode();
+    }
+
+    @Benchmark
+    public String matchGenerateCode() {
+        return Match.generateCode();
+    }
+
+    // What new users and matches get now instead of generateCode
+    @Benchmark
+    public long snowflakeNextId() {
+        return idAllocator.nextId();
+    }
+
+    @Benchmark
+    public String snowflakeNextCode() {
+        return idAllocator.nextCode();
+    }
+
+    @Benchmark
+    public Document writeMatch() {
+        Document document = new Document();
+        converter.write(match, document);
+        return document;
+    }
+
+    @Benchmark
+    public Match readMatch() {
+        return converter.read(Match.class, matchDocument);
+    }
+
+    @Benchmark
+    public User readUser() {
+        return converter.read(User.class, userDocument);
+    }
+
+    @Benchmark
+    public User readUserBattingStats() {
+        return converter.read(User.class, battingStatsDocument);
+    }
+}
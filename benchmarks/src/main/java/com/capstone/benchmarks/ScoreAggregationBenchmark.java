@@ -0,0 +1,87 @@
+package com.capstone.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.repository.UserRepositoryCustomImpl;
+import com.capstone.Players.service.ScoreCoalescer;
+
+// The in-memory part of score intake: coalescing a poll in listen and building the $inc/$max/$set updates
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreAggregationBenchmark {
+
+    // Records per poll, and how many distinct players they are spread over
+    @Param({"500"})
+    private int batchSize;
+
+    @Param({"22", "2000"})
+    private int players;
+
+    private List<PlayerStatsDTO> batch;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            PlayerStatsDTO event = new PlayerStatsDTO();
+            event.setUserId("UID-" + random.nextInt(players));
+            event.setUserName("Player");
+            event.setCurrentScore(random.nextInt(7));
+            event.setCurrentWickets(random.nextInt(10) == 0 ? 1 : 0);
+            batch.add(event);
+        }
+    }
+
+    // Batch listener: one poll folded into per-player deltas
+    @Benchmark
+    public Map<String, PlayerStatsDTO> coalesceBatch() {
+        return ScoreCoalescer.coalesce(batch);
+    }
+
+    // Batch listener end to end in memory: coalesce, then one update document per player for the bulkWrite
+    @Benchmark
+    public void coalesceAndBuildBulkUpdates(Blackhole blackhole) {
+        for (PlayerStatsDTO delta : ScoreCoalescer.coalesce(batch).values()) {
+            blackhole.consume(UserRepositoryCustomImpl.scoreUpdate(
+                    delta.getTotalScore(), delta.getTotalWickets(),
+                    delta.getHighestScore(), delta.getHighestWickets(),
+                    delta.getCurrentScore(), delta.getCurrentWickets()));
+        }
+    }
+
+    // savePlayerStats: one update document per event
+    @Benchmark
+    public void buildPerEventUpdates(Blackhole blackhole) {
+        for (PlayerStatsDTO event : batch) {
+            Update update = UserRepositoryCustomImpl.scoreUpdate(
+                    event.getCurrentScore(), event.getCurrentWickets(),
+                    event.getCurrentScore(), event.getCurrentWickets(),
+                    event.getCurrentScore(), event.getCurrentWickets());
+            blackhole.consume(update.getUpdateObject());
+        }
+    }
+}
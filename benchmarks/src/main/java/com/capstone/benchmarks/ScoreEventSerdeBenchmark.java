@@ -0,0 +1,114 @@
+package com.capstone.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.serialization.PlayerStatsBinaryDeserializer;
+import com.capstone.cricketmatch.entity.PlayerStats;
+import com.capstone.cricketmatch.serialization.PlayerStatsBinarySerializer;
+
+// Score event ser/de on both sides of the topic, JSON (the fallback path) against the binary format
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreEventSerdeBenchmark {
+
+    private static final String TOPIC = "match-score";
+
+    private PlayerStats playerStats;
+    private PlayerStatsDTO playerStatsDTO;
+
+    private JsonSerializer<PlayerStats> producerJsonSerializer;
+    private JsonSerializer<PlayerStatsDTO> dtoJsonSerializer;
+    private JsonDeserializer<PlayerStatsDTO> consumerJsonDeserializer;
+    private JsonDeserializer<PlayerStats> producerJsonDeserializer;
+    private PlayerStatsBinarySerializer producerBinarySerializer;
+    private PlayerStatsBinaryDeserializer consumerBinaryDeserializer;
+
+    private byte[] producerJson;
+    private byte[] dtoJson;
+    private byte[] producerBinary;
+
+    @Setup
+    public void setUp() {
+        playerStats = new PlayerStats("UID-4821", "Virat Sharma", 73, 2);
+        playerStats.setMatchCode("Qx7pK");
+        playerStatsDTO = new PlayerStatsDTO("UID-4821", "Virat Sharma", 5123, 41, 88, 183, 5, 73, 2);
+        playerStatsDTO.setMatchCode("Qx7pK");
+
+        producerJsonSerializer = new JsonSerializer<>();
+        dtoJsonSerializer = new JsonSerializer<>();
+        consumerJsonDeserializer = new JsonDeserializer<>(PlayerStatsDTO.class, false);
+        producerJsonDeserializer = new JsonDeserializer<>(PlayerStats.class, false);
+        producerBinarySerializer = new PlayerStatsBinarySerializer();
+        consumerBinaryDeserializer = new PlayerStatsBinaryDeserializer();
+
+        producerJson = producerJsonSerializer.serialize(TOPIC, playerStats);
+        dtoJson = dtoJsonSerializer.serialize(TOPIC, playerStatsDTO);
+        producerBinary = producerBinarySerializer.serialize(TOPIC, playerStats);
+    }
+
+    @TearDown
+    public void tearDown() {
+        producerJsonSerializer.close();
+        dtoJsonSerializer.close();
+        consumerJsonDeserializer.close();
+        producerJsonDeserializer.close();
+        consumerBinaryDeserializer.close();
+    }
+
+    // cricketmatch producer, JsonSerializer with its type headers
+    @Benchmark
+    public byte[] serializePlayerStatsJson() {
+        return producerJsonSerializer.serialize(TOPIC, new RecordHeaders(), playerStats);
+    }
+
+    @Benchmark
+    public PlayerStats deserializePlayerStatsJson() {
+        return producerJsonDeserializer.deserialize(TOPIC, producerJson);
+    }
+
+    @Benchmark
+    public byte[] serializePlayerStatsDTOJson() {
+        return dtoJsonSerializer.serialize(TOPIC, new RecordHeaders(), playerStatsDTO);
+    }
+
+    // Players consumer reading what cricketmatch writes
+    @Benchmark
+    public PlayerStatsDTO deserializePlayerStatsDTOJson() {
+        return consumerJsonDeserializer.deserialize(TOPIC, producerJson);
+    }
+
+    @Benchmark
+    public PlayerStatsDTO deserializeFullPlayerStatsDTOJson() {
+        return consumerJsonDeserializer.deserialize(TOPIC, dtoJson);
+    }
+
+    @Benchmark
+    public byte[] serializePlayerStatsBinary() {
+        return producerBinarySerializer.serialize(TOPIC, playerStats);
+    }
+
+    @Benchmark
+    public PlayerStatsDTO deserializePlayerStatsDTOBinary() {
+        return consumerBinaryDeserializer.deserialize(TOPIC, producerBinary);
+    }
+}
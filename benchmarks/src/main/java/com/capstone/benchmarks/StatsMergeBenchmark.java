@@ -0,0 +1,81 @@
+package com.capstone.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.Players.model.User;
+import com.capstone.Players.service.LiveStatsCache;
+import com.capstone.Players.service.UserService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The getAllPlayerStats merge: one live-stats snapshot overlaid on every stored user
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsMergeBenchmark {
+
+    @Param({"1000", "50000"})
+    private int users;
+
+    // Share of users with a live update in the cache
+    @Param({"0.05"})
+    private double liveShare;
+
+    private List<User> storedUsers;
+    private LiveStatsCache liveStatsCache;
+
+    @Setup
+    public void setUp() {
+        liveStatsCache = new LiveStatsCache(100_000, Duration.ofHours(6), new SimpleMeterRegistry());
+        storedUsers = new ArrayList<>(users);
+        int live = (int) (users * liveShare);
+        for (int i = 0; i < users; i++) {
+            User user = new User("Player " + i, "player" + i + "@example.com", "PLAYER");
+            user.setUserId("UID-" + i);
+            user.setTotalScore(i * 7);
+            storedUsers.add(user);
+            if (i < live) {
+                PlayerStatsDTO update = new PlayerStatsDTO();
+                update.setUserId(user.getUserId());
+                update.setCurrentScore(i % 100);
+                update.setMatchCode("M" + (i % 20));
+                liveStatsCache.put(update);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<PlayerStatsDTO> mergeAllPlayerStats() {
+        Map<String, PlayerStatsDTO> snapshot = liveStatsCache.snapshot();
+        List<PlayerStatsDTO> merged = new ArrayList<>(storedUsers.size());
+        for (User user : storedUsers) {
+            merged.add(UserService.withLiveStats(user, snapshot.get(user.getUserId())));
+        }
+        return merged;
+    }
+
+    @Benchmark
+    public Map<String, PlayerStatsDTO> snapshotLiveStats() {
+        return liveStatsCache.snapshot();
+    }
+}
@@ -2,8 +2,14 @@ package com.capstone.cricketmatch;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.capstone.ids.IdAllocatorConfig;
 
 @SpringBootApplication
+@EnableScheduling
+@Import(IdAllocatorConfig.class)
 public class CricketmatchApplication {
 
 	public static void main(String[] args) {
@@ -1,21 +1,25 @@
 package com.capstone.cricketmatch.KafkaProducerConfig;
 
 import com.capstone.cricketmatch.entity.PlayerStats;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.capstone.cricketmatch.serialization.PlayerStatsBinarySerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 @Configuration
 public class KafkaProducerConfig {
@@ -23,14 +27,44 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // Bytes per partition batch; bigger batches mean fewer, denser requests on a busy match day
+    @Value("${matches.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    // How long a batch may wait to fill up before it is sent
+    @Value("${matches.kafka.producer.linger-ms:10}")
+    private int lingerMs;
+
+    @Value("${matches.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    // Broker-side de-duplication of producer retries, which also keeps per-partition order with several requests in flight
+    @Value("${matches.kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence;
+
+    // binary: compact versioned encoding (PlayerStatsBinarySerializer); json: Spring JsonSerializer
+    @Value("${matches.kafka.value-format:json}")
+    private String valueFormat;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     public ProducerFactory<String, PlayerStats> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                "binary".equalsIgnoreCase(valueFormat) ? PlayerStatsBinarySerializer.class : JsonSerializer.class);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+        DefaultKafkaProducerFactory<String, PlayerStats> factory = new DefaultKafkaProducerFactory<>(configProps);
+        // Client metrics such as kafka.producer.request.latency.avg and record.error.rate
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -38,8 +72,9 @@ public class KafkaProducerConfig {
         return new KafkaTemplate<>(producerFactory());
     }
 
-    public String sendEntity(String topic, PlayerStats entity) throws JsonProcessingException, ExecutionException, InterruptedException {
-        kafkaTemplate().send(topic, entity).get();
-        return "Message sent successfully";
+    // Completes when the broker acknowledges the record instead of blocking the caller
+    public CompletableFuture<String> sendEntity(String topic, PlayerStats entity) {
+        CompletableFuture<SendResult<String, PlayerStats>> ack = kafkaTemplate().send(topic, entity.getMatchCode(), entity);
+        return ack.thenApply(result -> "Message sent successfully");
     }
 }
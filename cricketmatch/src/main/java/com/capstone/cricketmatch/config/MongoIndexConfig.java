@@ -0,0 +1,86 @@
+package com.capstone.cricketmatch.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+
+import com.capstone.cricketmatch.entity.BallEvent;
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.PlayerBallStat;
+import com.capstone.cricketmatch.entity.RolledUpMatch;
+import com.capstone.cricketmatch.entity.TeamProvisioningTask;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Declares the indexes the match queries rely on; ensureIndex is a no-op when an index already exists
+@Configuration
+public class MongoIndexConfig {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    // How long completed team provisioning tasks are kept before Mongo expires them
+    @Value("${matches.team-outbox.retention:7d}")
+    private Duration outboxRetention;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        ensureIndexes().subscribe(null,
+                error -> System.out.println("Failed to create match indexes: " + error));
+    }
+
+    public Mono<Void> ensureIndexes() {
+        ReactiveIndexOperations matches = mongoTemplate.indexOps(Match.class);
+        ReactiveIndexOperations outbox = mongoTemplate.indexOps(TeamProvisioningTask.class);
+        ReactiveIndexOperations balls = mongoTemplate.indexOps(BallEvent.class);
+        ReactiveIndexOperations series = mongoTemplate.indexOps(PlayerBallStat.class);
+        ReactiveIndexOperations rollupLedger = mongoTemplate.indexOps(RolledUpMatch.class);
+        return Flux.concat(
+                matches.ensureIndex(new Index().on("code", Sort.Direction.ASC)
+                        .unique().named("code_unique")),
+                // _id closes both compound indexes so the keyset sort (date, _id) is served from the index
+                matches.ensureIndex(new Index().on("status", Sort.Direction.ASC)
+                        .on("date", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("status_date")),
+                matches.ensureIndex(new Index().on("location", Sort.Direction.ASC)
+                        .on("date", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("location_date")),
+                // Sparse, so it holds only the new matches whose team provisioning task is still to be moved
+                matches.ensureIndex(new Index().on("teamTask.createdAt", Sort.Direction.ASC)
+                        .sparse().named("pending_team_task")),
+                // Serves the dispatcher's claim query, which also picks up tasks whose lease ran out
+                outbox.ensureIndex(new Index().on("status", Sort.Direction.ASC)
+                        .on("nextAttemptAt", Sort.Direction.ASC).named("status_next_attempt")),
+                // Only DONE tasks carry completedAt, so pending and failed ones are never expired
+                outbox.ensureIndex(new Index().on("completedAt", Sort.Direction.ASC)
+                        .expire(outboxRetention).named("completed_ttl")),
+                // Serves the event tail read on rebuild and keeps two balls from claiming one position in a match
+                balls.ensureIndex(new Index().on("matchId", Sort.Direction.ASC)
+                        .on("sequence", Sort.Direction.ASC).unique().named("match_sequence")),
+                // The first insert would otherwise create a plain collection; this one buckets points per series
+                createTimeSeries(),
+                // Mongo's own index covers the whole series document; the reads filter on its fields
+                series.ensureIndex(new Index().on("series.matchId", Sort.Direction.ASC)
+                        .on("series.playerId", Sort.Direction.ASC).on("recordedAt", Sort.Direction.ASC)
+                        .named("series_match_player_time")),
+                // Serve the rollup sweeper's claim of unfinished entries and its trim of entries done long ago
+                rollupLedger.ensureIndex(new Index().on("status", Sort.Direction.ASC)
+                        .on("nextAttemptAt", Sort.Direction.ASC).named("status_next_attempt")),
+                rollupLedger.ensureIndex(new Index().on("status", Sort.Direction.ASC)
+                        .on("completedAt", Sort.Direction.ASC).named("status_completed"))
+        ).then();
+    }
+
+    private Mono<Void> createTimeSeries() {
+        return mongoTemplate.collectionExists(PlayerBallStat.class)
+                .flatMap(exists -> exists ? Mono.empty() : mongoTemplate.createCollection(PlayerBallStat.class))
+                .then();
+    }
+}
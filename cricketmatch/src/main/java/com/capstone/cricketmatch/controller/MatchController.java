@@ -2,16 +2,28 @@ package com.capstone.cricketmatch.controller;
 
 
 import com.capstone.cricketmatch.entity.PlayerStats;
+
+import java.util.Date;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.capstone.cricketmatch.dto.OverStats;
+import com.capstone.cricketmatch.entity.BallEvent;
 import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.PlayerBallStat;
+import com.capstone.cricketmatch.service.LiveScoreHub;
+import com.capstone.cricketmatch.service.MatchEventService;
 import com.capstone.cricketmatch.service.MatchService;
 
 import reactor.core.publisher.Flux;
@@ -24,10 +36,24 @@ public class MatchController {
     @Autowired
     private MatchService matchService;
 
+    @Autowired
+    private LiveScoreHub liveScoreHub;
+
+    @Autowired
+    private MatchEventService matchEventService;
+
+    // Responds once the broker has acknowledged the score, without holding a thread while it waits
     @PostMapping("/schedule")
-    public String scheduleFlight(@RequestBody PlayerStats playerStats) {
-        matchService.sendMatchScores(playerStats);
-        return "Flight scheduled successfully!";
+    public Mono<String> scheduleFlight(@RequestBody PlayerStats playerStats) {
+        return matchService.sendMatchScores(playerStats)
+                .map(result -> "Flight scheduled successfully!");
+    }
+
+    // Many scores in one request; they are pipelined through the producer and acknowledged together
+    @PostMapping("/schedule/batch")
+    public Mono<String> scheduleBatch(@RequestBody List<PlayerStats> playerStats) {
+        return matchService.sendMatchScores(playerStats)
+                .map(results -> results.size() + " scores scheduled successfully!");
     }
 
 
@@ -37,6 +63,12 @@ public class MatchController {
         return matchService.getAllMatches();
     }
 
+    // Same matches streamed one element at a time for clients that accept NDJSON or SSE
+    @GetMapping(value = "/allMatches", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Match> streamAllMatches() {
+        return matchService.streamAllMatches();
+    }
+
     @PostMapping("/createMatch") //working
     public Mono<Match> createMatch(@RequestBody Match match) {
         return matchService.createMatch(match);
@@ -48,9 +80,16 @@ public class MatchController {
         return matchService.getMatchByCode(code);
     }
 
+    // Pass size for a keyset page; afterDate and afterId are the date and id of the last match of the previous page
     @GetMapping("/location/{location}") // working
-    public Flux<Match> getMatchByLocation(@PathVariable String location) {
-        return matchService.getMatchesByLocation(location);
+    public Flux<Match> getMatchByLocation(@PathVariable String location,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date afterDate,
+            @RequestParam(required = false) Long afterId) {
+        if (size == null) {
+            return matchService.getMatchesByLocation(location);
+        }
+        return matchService.getMatchesByLocation(location, afterDate, afterId, size);
     }
 
     // @GetMapping("/date/{date}") // Avoid ambiguous mappings
@@ -59,8 +98,14 @@ public class MatchController {
     // }
 
     @GetMapping("/status/{status}")
-    public Flux<Match> getMatchByStatus(@PathVariable String status) {
-        return matchService.getMatchesByStatus(status);
+    public Flux<Match> getMatchByStatus(@PathVariable String status,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date afterDate,
+            @RequestParam(required = false) Long afterId) {
+        if (size == null) {
+            return matchService.getMatchesByStatus(status);
+        }
+        return matchService.getMatchesByStatus(status, afterDate, afterId, size);
     }
 
     @PutMapping("/startMatch/{id}")
@@ -74,10 +119,36 @@ public class MatchController {
         return matchService.endMatch(id, match.getWinner());
     }
 
+    // One delivery of an ongoing match; the stored ball comes back with its sequence
+    @PostMapping("/ball/{id}")
+    public Mono<BallEvent> recordBall(@PathVariable Long id, @RequestBody BallEvent ball) {
+        return matchEventService.recordBall(id, ball);
+    }
+
+    // Server-sent events with every score update of a match, pushed as it is scheduled
+    @GetMapping(value = "/live/{code}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<PlayerStats> liveScores(@PathVariable String code) {
+        return liveScoreHub.subscribe(code);
+    }
+
+    // The full player stats; every other match read returns the summary without them
     @GetMapping("/getMatchStats/{id}")
     public Mono<Match> getMatchStats(@PathVariable Long id) {
         return matchService.getMatchStats(id);
     }
 
+    // Ball-by-ball points of one player in a match; from (inclusive) and to (exclusive) narrow the time range
+    @GetMapping("/series/{id}/{playerId}")
+    public Flux<PlayerBallStat> playerSeries(@PathVariable Long id, @PathVariable String playerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        return matchEventService.getPlayerSeries(id, playerId, from, to);
+    }
+
+    @GetMapping("/overs/{id}")
+    public Flux<OverStats> overStats(@PathVariable Long id) {
+        return matchEventService.getOverStats(id);
+    }
+
 
 }
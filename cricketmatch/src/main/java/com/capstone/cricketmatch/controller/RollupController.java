@@ -0,0 +1,37 @@
+package com.capstone.cricketmatch.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.capstone.cricketmatch.entity.MatchRollup;
+import com.capstone.cricketmatch.service.RollupService;
+
+import reactor.core.publisher.Mono;
+
+// Totals of completed matches, each read from its materialized rollup document
+@RestController
+@RequestMapping("/api/rollups")
+public class RollupController {
+
+    @Autowired
+    private RollupService rollupService;
+
+    @GetMapping("/venue/{location}")
+    public Mono<MatchRollup> venue(@PathVariable String location) {
+        return rollupService.getVenue(location);
+    }
+
+    @GetMapping("/team/{team}")
+    public Mono<MatchRollup> team(@PathVariable String team) {
+        return rollupService.getTeam(team);
+    }
+
+    // month as yyyy-MM
+    @GetMapping("/month/{month}")
+    public Mono<MatchRollup> month(@PathVariable String month) {
+        return rollupService.getMonth(month);
+    }
+}
@@ -0,0 +1,54 @@
+package com.capstone.cricketmatch.dto;
+
+import java.util.List;
+
+// Broadcast to other instances when a match changes so they can drop their cached copies
+public class MatchCacheInvalidation {
+    private String origin;
+    private String code;
+    private List<String> statuses;
+    private String location;
+
+    public MatchCacheInvalidation() {
+    }
+
+    public MatchCacheInvalidation(String origin, String code, List<String> statuses, String location) {
+        this.origin = origin;
+        this.code = code;
+        this.statuses = statuses;
+        this.location = location;
+    }
+
+    // Getters and Setters
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public List<String> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(List<String> statuses) {
+        this.statuses = statuses;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+}
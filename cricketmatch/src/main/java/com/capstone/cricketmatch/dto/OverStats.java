@@ -0,0 +1,63 @@
+package com.capstone.cricketmatch.dto;
+
+// One over of a match as the bowler's figures, summed from the per-ball series
+public class OverStats {
+    private int innings;
+    private int over;
+    private String bowlerId;
+    private int runs;
+    private int wickets;
+    private int balls;
+
+    public OverStats() {
+    }
+
+    // Getters and Setters
+    public int getInnings() {
+        return innings;
+    }
+
+    public void setInnings(int innings) {
+        this.innings = innings;
+    }
+
+    public int getOver() {
+        return over;
+    }
+
+    public void setOver(int over) {
+        this.over = over;
+    }
+
+    public String getBowlerId() {
+        return bowlerId;
+    }
+
+    public void setBowlerId(String bowlerId) {
+        this.bowlerId = bowlerId;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int runs) {
+        this.runs = runs;
+    }
+
+    public int getWickets() {
+        return wickets;
+    }
+
+    public void setWickets(int wickets) {
+        this.wickets = wickets;
+    }
+
+    public int getBalls() {
+        return balls;
+    }
+
+    public void setBalls(int balls) {
+        this.balls = balls;
+    }
+}
@@ -0,0 +1,185 @@
+package com.capstone.cricketmatch.entity;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// One delivery of a match, appended to the event store; the match's player stats are a fold over these
+@Document(collection = "ball_events")
+public class BallEvent {
+
+    public static final String WIDE = "WIDE";
+    public static final String NO_BALL = "NO_BALL";
+    public static final String BYE = "BYE";
+    public static final String LEG_BYE = "LEG_BYE";
+
+    // Dismissals that are not credited to the bowler
+    public static final String RUN_OUT = "RUN_OUT";
+
+    @Id
+    private Long id;
+    private Long matchId;
+    // Position of the ball within its match, assigned by the match aggregate; (matchId, sequence) is unique
+    private long sequence;
+    private int innings;
+    private int over;
+    private int ball;
+    private String batterId;
+    private String batterName;
+    private String bowlerId;
+    private String bowlerName;
+    // Runs off the bat, credited to the batter
+    private int runs;
+    private int extras;
+    // WIDE, NO_BALL, BYE or LEG_BYE when extras were conceded
+    private String extraType;
+    private boolean wicket;
+    private String wicketKind;
+    private String dismissedId;
+    private Date recordedAt;
+
+    public BallEvent() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getInnings() {
+        return innings;
+    }
+
+    public void setInnings(int innings) {
+        this.innings = innings;
+    }
+
+    public int getOver() {
+        return over;
+    }
+
+    public void setOver(int over) {
+        this.over = over;
+    }
+
+    public int getBall() {
+        return ball;
+    }
+
+    public void setBall(int ball) {
+        this.ball = ball;
+    }
+
+    public String getBatterId() {
+        return batterId;
+    }
+
+    public void setBatterId(String batterId) {
+        this.batterId = batterId;
+    }
+
+    public String getBatterName() {
+        return batterName;
+    }
+
+    public void setBatterName(String batterName) {
+        this.batterName = batterName;
+    }
+
+    public String getBowlerId() {
+        return bowlerId;
+    }
+
+    public void setBowlerId(String bowlerId) {
+        this.bowlerId = bowlerId;
+    }
+
+    public String getBowlerName() {
+        return bowlerName;
+    }
+
+    public void setBowlerName(String bowlerName) {
+        this.bowlerName = bowlerName;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int runs) {
+        this.runs = runs;
+    }
+
+    public int getExtras() {
+        return extras;
+    }
+
+    public void setExtras(int extras) {
+        this.extras = extras;
+    }
+
+    public String getExtraType() {
+        return extraType;
+    }
+
+    public void setExtraType(String extraType) {
+        this.extraType = extraType;
+    }
+
+    public boolean isWicket() {
+        return wicket;
+    }
+
+    public void setWicket(boolean wicket) {
+        this.wicket = wicket;
+    }
+
+    public String getWicketKind() {
+        return wicketKind;
+    }
+
+    public void setWicketKind(String wicketKind) {
+        this.wicketKind = wicketKind;
+    }
+
+    public String getDismissedId() {
+        return dismissedId;
+    }
+
+    public void setDismissedId(String dismissedId) {
+        this.dismissedId = dismissedId;
+    }
+
+    public Date getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(Date recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+
+    // Whether the ball counts towards the over; wides and no-balls are bowled again
+    public boolean isLegal() {
+        return !WIDE.equals(extraType) && !NO_BALL.equals(extraType);
+    }
+}
@@ -0,0 +1,67 @@
+package com.capstone.cricketmatch.entity;
+
+// Score line of one innings, kept on the match so list reads show the state of play without any per-ball data
+public class InningsSummary {
+    private int innings;
+    private int runs;
+    private int wickets;
+    private int legalBalls;
+
+    public InningsSummary(int innings) {
+        this.innings = innings;
+    }
+
+    public InningsSummary() {
+    }
+
+    // Runs include extras; every dismissal counts, run outs too
+    public void add(BallEvent ball) {
+        runs += ball.getRuns() + ball.getExtras();
+        if (ball.isWicket()) {
+            wickets++;
+        }
+        if (ball.isLegal()) {
+            legalBalls++;
+        }
+    }
+
+    public InningsSummary copy() {
+        InningsSummary copy = new InningsSummary(innings);
+        copy.runs = runs;
+        copy.wickets = wickets;
+        copy.legalBalls = legalBalls;
+        return copy;
+    }
+
+    public int getInnings() {
+        return innings;
+    }
+
+    public void setInnings(int innings) {
+        this.innings = innings;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int runs) {
+        this.runs = runs;
+    }
+
+    public int getWickets() {
+        return wickets;
+    }
+
+    public void setWickets(int wickets) {
+        this.wickets = wickets;
+    }
+
+    public int getLegalBalls() {
+        return legalBalls;
+    }
+
+    public void setLegalBalls(int legalBalls) {
+        this.legalBalls = legalBalls;
+    }
+}
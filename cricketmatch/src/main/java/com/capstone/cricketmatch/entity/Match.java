@@ -7,6 +7,8 @@ import java.util.Random;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Document(collection = "matches")
 public class Match {
     @Id
@@ -18,8 +20,17 @@ public class Match {
     private int teamSize;
     private String winner;
     private String status;
+    // Derived from the id on first save by MatchIdCallback unless set explicitly
     private String code;
+    // Snapshot of the match aggregate; snapshotSequence is the last ball it contains. List and lookup reads leave
+    // playerStats out and show only the innings scores; the ball-by-ball figures live in player_ball_stats.
     private List<PlayerStats> playerStats;
+    private List<InningsSummary> innings;
+    private long snapshotSequence;
+    // Team provisioning task, written in the same insert as the match; TeamProvisioningDispatcher moves it to the
+    // outbox and clears it. Never part of the API.
+    @JsonIgnore
+    private TeamProvisioningTask teamTask;
 
     public Match(Long id, String team1, String team2, Date date, String location, int teamSize) {
         this.id = id;
@@ -28,7 +39,6 @@ public class Match {
         this.date = date;
         this.location = location;
         this.teamSize = teamSize;
-        this.code = generateCode();
         this.winner = "-";
         this.status = "Upcoming";
     }
@@ -113,6 +123,30 @@ public class Match {
         this.playerStats = playerStats;
     }
 
+    public List<InningsSummary> getInnings() {
+        return innings;
+    }
+
+    public void setInnings(List<InningsSummary> innings) {
+        this.innings = innings;
+    }
+
+    public long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+
+    public void setSnapshotSequence(long snapshotSequence) {
+        this.snapshotSequence = snapshotSequence;
+    }
+
+    public TeamProvisioningTask getTeamTask() {
+        return teamTask;
+    }
+
+    public void setTeamTask(TeamProvisioningTask teamTask) {
+        this.teamTask = teamTask;
+    }
+
     public static String generateCode() {
         StringBuilder code = new StringBuilder();
         String possible = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
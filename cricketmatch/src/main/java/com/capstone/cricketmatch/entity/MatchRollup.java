@@ -0,0 +1,102 @@
+package com.capstone.cricketmatch.entity;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+
+// Running totals of completed matches for one venue, team or month. Each dimension has its own collection,
+// keyed by the location, the team name or the month (yyyy-MM), and is only ever changed with $inc.
+public class MatchRollup {
+    @Id
+    private String id;
+    private long matches;
+    // Matches that ended with a winner; the rest were ties or had no result
+    private long decided;
+    // Team rollups only
+    private long wins;
+    private long losses;
+    // Totals over every innings of the matches
+    private long runs;
+    private long wickets;
+    private long legalBalls;
+    private Date updatedAt;
+
+    public MatchRollup() {
+    }
+
+    public MatchRollup(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getMatches() {
+        return matches;
+    }
+
+    public void setMatches(long matches) {
+        this.matches = matches;
+    }
+
+    public long getDecided() {
+        return decided;
+    }
+
+    public void setDecided(long decided) {
+        this.decided = decided;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public void setWins(long wins) {
+        this.wins = wins;
+    }
+
+    public long getLosses() {
+        return losses;
+    }
+
+    public void setLosses(long losses) {
+        this.losses = losses;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public void setRuns(long runs) {
+        this.runs = runs;
+    }
+
+    public long getWickets() {
+        return wickets;
+    }
+
+    public void setWickets(long wickets) {
+        this.wickets = wickets;
+    }
+
+    public long getLegalBalls() {
+        return legalBalls;
+    }
+
+    public void setLegalBalls(long legalBalls) {
+        this.legalBalls = legalBalls;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
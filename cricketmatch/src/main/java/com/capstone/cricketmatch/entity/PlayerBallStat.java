@@ -0,0 +1,184 @@
+package com.capstone.cricketmatch.entity;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+// One player's part in one delivery, stored in a time-series collection: every ball gives a point for the batter
+// and one for the bowler. Mongo buckets the points by series (match and player), so a player's balls in a match sit
+// together on disk and a range read touches only that player's buckets.
+@TimeSeries(collection = "player_ball_stats", timeField = "recordedAt", metaField = "series",
+        granularity = Granularity.SECONDS)
+public class PlayerBallStat {
+
+    public static final String BATTING = "BAT";
+    public static final String BOWLING = "BOWL";
+
+    @Id
+    private String id;
+    private Series series;
+    private Date recordedAt;
+    private long sequence;
+    private int innings;
+    private int over;
+    private int ball;
+    private String role;
+    // Batting: runs off the bat and 1 for a legal ball faced. Bowling: runs conceded (byes and leg byes excepted)
+    // and 1 for a legal ball bowled
+    private int runs;
+    private int balls;
+    // Batting: 1 when this player was out. Bowling: 1 when the wicket is credited to the bowler
+    private int wickets;
+
+    public PlayerBallStat() {
+    }
+
+    public static PlayerBallStat batting(BallEvent ball) {
+        PlayerBallStat stat = of(ball, ball.getBatterId(), BATTING);
+        stat.runs = ball.getRuns();
+        stat.balls = BallEvent.WIDE.equals(ball.getExtraType()) ? 0 : 1;
+        stat.wickets = ball.isWicket() && (ball.getDismissedId() == null || ball.getDismissedId().equals(ball.getBatterId())) ? 1 : 0;
+        return stat;
+    }
+
+    public static PlayerBallStat bowling(BallEvent ball) {
+        PlayerBallStat stat = of(ball, ball.getBowlerId(), BOWLING);
+        boolean byes = BallEvent.BYE.equals(ball.getExtraType()) || BallEvent.LEG_BYE.equals(ball.getExtraType());
+        stat.runs = ball.getRuns() + (byes ? 0 : ball.getExtras());
+        stat.balls = ball.isLegal() ? 1 : 0;
+        stat.wickets = ball.isWicket() && !BallEvent.RUN_OUT.equals(ball.getWicketKind()) ? 1 : 0;
+        return stat;
+    }
+
+    private static PlayerBallStat of(BallEvent ball, String playerId, String role) {
+        PlayerBallStat stat = new PlayerBallStat();
+        stat.series = new Series(ball.getMatchId(), playerId);
+        stat.recordedAt = ball.getRecordedAt();
+        stat.sequence = ball.getSequence();
+        stat.innings = ball.getInnings();
+        stat.over = ball.getOver();
+        stat.ball = ball.getBall();
+        stat.role = role;
+        return stat;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Series getSeries() {
+        return series;
+    }
+
+    public void setSeries(Series series) {
+        this.series = series;
+    }
+
+    public Date getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(Date recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getInnings() {
+        return innings;
+    }
+
+    public void setInnings(int innings) {
+        this.innings = innings;
+    }
+
+    public int getOver() {
+        return over;
+    }
+
+    public void setOver(int over) {
+        this.over = over;
+    }
+
+    public int getBall() {
+        return ball;
+    }
+
+    public void setBall(int ball) {
+        this.ball = ball;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int runs) {
+        this.runs = runs;
+    }
+
+    public int getBalls() {
+        return balls;
+    }
+
+    public void setBalls(int balls) {
+        this.balls = balls;
+    }
+
+    public int getWickets() {
+        return wickets;
+    }
+
+    public void setWickets(int wickets) {
+        this.wickets = wickets;
+    }
+
+    // The time-series meta field; one bucket only ever holds points of a single series
+    public static class Series {
+        private Long matchId;
+        private String playerId;
+
+        public Series(Long matchId, String playerId) {
+            this.matchId = matchId;
+            this.playerId = playerId;
+        }
+
+        public Series() {
+        }
+
+        public Long getMatchId() {
+            return matchId;
+        }
+
+        public void setMatchId(Long matchId) {
+            this.matchId = matchId;
+        }
+
+        public String getPlayerId() {
+            return playerId;
+        }
+
+        public void setPlayerId(String playerId) {
+            this.playerId = playerId;
+        }
+    }
+}
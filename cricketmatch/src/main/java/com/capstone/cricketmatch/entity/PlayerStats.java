@@ -1,11 +1,19 @@
 package com.capstone.cricketmatch.entity;
 
+import org.springframework.data.annotation.Transient;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 public class PlayerStats {
     private String userId;
     private String userName;
     private int currentScore;
     private int currentWickets;
+    private String matchCode;
+    // Identifies one score event on the wire so Players can drop redeliveries; never stored with a match
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private long eventId;
 
     public PlayerStats(String userId, String userName, int currentScore, int currentWickets) {
         this.userId = userId;
@@ -22,7 +30,7 @@ public class PlayerStats {
     }
 
     public void setPlayerId(String playerId) {
-        this.userId = userId;
+        this.userId = playerId;
     }
 
     public String getPlayerName() {
@@ -48,4 +56,20 @@ public class PlayerStats {
     public void setWicketsTaken(int wicketsTaken) {
         this.currentWickets = wicketsTaken;
     }
+
+    public String getMatchCode() {
+        return matchCode;
+    }
+
+    public void setMatchCode(String matchCode) {
+        this.matchCode = matchCode;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
 }
@@ -0,0 +1,119 @@
+package com.capstone.cricketmatch.entity;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Ledger entry of a completed match in the rollups, keyed by the match id: inserting it is the claim, so a second
+// endMatch of the same match adds nothing. It carries the increments to apply and is leased like an outbox task
+// until all of them are in; RollupSweeper finishes entries whose recorder failed or died.
+@Document(collection = "rollup_ledger")
+public class RolledUpMatch {
+
+    public static final String PENDING = "PENDING";
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String DONE = "DONE";
+    // Done long enough ago that the match id was removed from the rollups' applied lists again
+    public static final String CLOSED = "CLOSED";
+
+    @Id
+    private Long matchId;
+    private String winner;
+    private List<RollupIncrement> increments;
+    private String status;
+    // Raised by every claim; only the holder of the latest claim may complete or reschedule the entry
+    private int attempts;
+    // The retry time while PENDING, the lease expiry while IN_PROGRESS
+    private Date nextAttemptAt;
+    private String lastError;
+    private Date createdAt;
+    private Date completedAt;
+
+    public RolledUpMatch() {
+    }
+
+    // A new entry, claimed by the request that records it
+    public RolledUpMatch(Long matchId, String winner, List<RollupIncrement> increments, Date now, Date leaseUntil) {
+        this.matchId = matchId;
+        this.winner = winner;
+        this.increments = increments;
+        this.status = IN_PROGRESS;
+        this.attempts = 1;
+        this.nextAttemptAt = leaseUntil;
+        this.createdAt = now;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    public void setWinner(String winner) {
+        this.winner = winner;
+    }
+
+    public List<RollupIncrement> getIncrements() {
+        return increments;
+    }
+
+    public void setIncrements(List<RollupIncrement> increments) {
+        this.increments = increments;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Date nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Date completedAt) {
+        this.completedAt = completedAt;
+    }
+}
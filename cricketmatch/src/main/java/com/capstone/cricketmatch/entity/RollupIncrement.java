@@ -0,0 +1,86 @@
+package com.capstone.cricketmatch.entity;
+
+// What one completed match adds to one rollup document; computed once when the match is recorded and stored on its
+// ledger entry, so a retry adds exactly the same amounts
+public class RollupIncrement {
+    private String collection;
+    private String key;
+    private long decided;
+    private long wins;
+    private long losses;
+    private long runs;
+    private long wickets;
+    private long legalBalls;
+
+    public RollupIncrement() {
+    }
+
+    public RollupIncrement(String collection, String key) {
+        this.collection = collection;
+        this.key = key;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getDecided() {
+        return decided;
+    }
+
+    public void setDecided(long decided) {
+        this.decided = decided;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public void setWins(long wins) {
+        this.wins = wins;
+    }
+
+    public long getLosses() {
+        return losses;
+    }
+
+    public void setLosses(long losses) {
+        this.losses = losses;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public void setRuns(long runs) {
+        this.runs = runs;
+    }
+
+    public long getWickets() {
+        return wickets;
+    }
+
+    public void setWickets(long wickets) {
+        this.wickets = wickets;
+    }
+
+    public long getLegalBalls() {
+        return legalBalls;
+    }
+
+    public void setLegalBalls(long legalBalls) {
+        this.legalBalls = legalBalls;
+    }
+}
@@ -0,0 +1,113 @@
+package com.capstone.cricketmatch.entity;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Outbox entry asking the team service to create the teams of a match; one per match, keyed by the match id
+@Document(collection = "team_provisioning_outbox")
+public class TeamProvisioningTask {
+
+    public static final String PENDING = "PENDING";
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    private Long matchId;
+    private List<String> teamNames;
+    private int teamSize;
+    private String status;
+    private int attempts;
+    // When the task is next due: the retry time while PENDING, the lease expiry while IN_PROGRESS
+    private Date nextAttemptAt;
+    private String lastError;
+    private Date createdAt;
+    private Date completedAt;
+
+    public TeamProvisioningTask() {
+    }
+
+    public TeamProvisioningTask(Match match, Date now) {
+        this.matchId = match.getId();
+        this.teamNames = List.of(match.getTeam1(), match.getTeam2());
+        this.teamSize = match.getTeamSize();
+        this.status = PENDING;
+        this.nextAttemptAt = now;
+        this.createdAt = now;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+
+    public List<String> getTeamNames() {
+        return teamNames;
+    }
+
+    public void setTeamNames(List<String> teamNames) {
+        this.teamNames = teamNames;
+    }
+
+    public int getTeamSize() {
+        return teamSize;
+    }
+
+    public void setTeamSize(int teamSize) {
+        this.teamSize = teamSize;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Date nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Date completedAt) {
+        this.completedAt = completedAt;
+    }
+}
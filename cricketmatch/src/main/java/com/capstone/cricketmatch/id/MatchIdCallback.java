@@ -0,0 +1,33 @@
+package com.capstone.cricketmatch.id;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.ids.IdAllocator;
+
+import reactor.core.publisher.Mono;
+
+// Fills in a missing id and code just before a match is written. The code is derived from the id,
+// so it is unique whenever the id is and the code index never rejects an insert.
+@Component
+public class MatchIdCallback implements ReactiveBeforeConvertCallback<Match> {
+
+    private final IdAllocator idAllocator;
+
+    public MatchIdCallback(IdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
+    }
+
+    @Override
+    public Publisher<Match> onBeforeConvert(Match match, String collection) {
+        if (match.getId() == null) {
+            match.setId(idAllocator.nextId());
+        }
+        if (match.getCode() == null) {
+            match.setCode(idAllocator.toCode(match.getId()));
+        }
+        return Mono.just(match);
+    }
+}
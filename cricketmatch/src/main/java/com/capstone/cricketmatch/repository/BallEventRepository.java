@@ -0,0 +1,15 @@
+package com.capstone.cricketmatch.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.capstone.cricketmatch.entity.BallEvent;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface BallEventRepository extends ReactiveMongoRepository<BallEvent, Long> {
+
+    // The event tail after a snapshot, in the order it was recorded; served by the match_sequence index
+    Flux<BallEvent> findByMatchIdAndSequenceGreaterThanOrderBySequenceAsc(Long matchId, long sequence);
+}
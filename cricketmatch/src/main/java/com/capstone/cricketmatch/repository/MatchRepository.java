@@ -2,6 +2,7 @@ package com.capstone.cricketmatch.repository;
 
 import java.util.Date;
 
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,14 +12,22 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface MatchRepository extends ReactiveMongoRepository<Match,Long>{
+public interface MatchRepository extends ReactiveMongoRepository<Match,Long>, MatchRepositoryCustom {
 
+    // Lookups and lists return match summaries; findById still reads the whole document
+
+    @Query(fields = "{ 'playerStats': 0 }")
     Mono<Match> findByCode(String code);
 
     Flux<Match> findByDate(Date date);
 
+    @Query(fields = "{ 'playerStats': 0 }")
     Flux<Match> findByLocation(String location);
 
+    @Query(fields = "{ 'playerStats': 0 }")
     Flux<Match> findByStatus(String status);
 
+    @Query(value = "{}", fields = "{ 'playerStats': 0 }")
+    Flux<Match> findAllSummaries();
+
 }
@@ -0,0 +1,34 @@
+package com.capstone.cricketmatch.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import com.capstone.cricketmatch.entity.InningsSummary;
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.PlayerStats;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface MatchRepositoryCustom {
+
+    // List reads below return match summaries: everything but playerStats
+
+    // Every match, read with the given cursor batch size so downstream demand drives the driver's fetches
+    Flux<Match> streamAll(int cursorBatchSize);
+
+    // Keyset page of matches with field == value, ordered by (date, id), starting after the given position.
+    // A null afterId means the first page.
+    Flux<Match> findPage(String field, String value, Date afterDate, Long afterId, int size);
+
+    // Replaces only the player stats and innings scores of a match, and only with a snapshot newer than the stored
+    // one. Emits the updated match, or nothing when the match is gone or already has a later snapshot.
+    Mono<Match> saveSnapshot(Long id, List<PlayerStats> playerStats, List<InningsSummary> innings, long sequence);
+
+    // Matches still holding the team provisioning task they were created with, oldest first, at most limit of them.
+    // Only the teams and the task are read.
+    Flux<Match> findWithTeamTask(int limit);
+
+    // Removes the embedded task once the outbox holds it; emits whether there was one
+    Mono<Boolean> clearTeamTask(Long id);
+}
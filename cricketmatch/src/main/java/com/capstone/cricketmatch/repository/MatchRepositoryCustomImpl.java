@@ -0,0 +1,92 @@
+package com.capstone.cricketmatch.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.capstone.cricketmatch.entity.InningsSummary;
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.PlayerStats;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class MatchRepositoryCustomImpl implements MatchRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public MatchRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<Match> streamAll(int cursorBatchSize) {
+        Query query = new Query().cursorBatchSize(cursorBatchSize);
+        query.fields().exclude("playerStats");
+        return mongoTemplate.find(query, Match.class);
+    }
+
+    @Override
+    public Flux<Match> findPage(String field, String value, Date afterDate, Long afterId, int size) {
+        return mongoTemplate.find(pageQuery(field, value, afterDate, afterId, size), Match.class);
+    }
+
+    @Override
+    public Mono<Match> saveSnapshot(Long id, List<PlayerStats> playerStats, List<InningsSummary> innings, long sequence) {
+        // Snapshots of one match may be written from several requests at once; an older one must never win.
+        // Matches stored before snapshots existed have no snapshotSequence yet.
+        Query older = Query.query(Criteria.where("_id").is(id).orOperator(
+                Criteria.where("snapshotSequence").lt(sequence),
+                Criteria.where("snapshotSequence").exists(false)));
+        Update snapshot = new Update()
+                .set("playerStats", playerStats)
+                .set("innings", innings)
+                .set("snapshotSequence", sequence);
+        return mongoTemplate.findAndModify(older, snapshot, FindAndModifyOptions.options().returnNew(true), Match.class);
+    }
+
+    @Override
+    public Flux<Match> findWithTeamTask(int limit) {
+        // Served by the sparse pending_team_task index, which holds only the matches that still carry a task
+        Query pending = Query.query(Criteria.where("teamTask.createdAt").exists(true))
+                .with(Sort.by(Sort.Direction.ASC, "teamTask.createdAt"))
+                .limit(limit);
+        pending.fields().include("team1", "team2", "teamSize", "teamTask");
+        return mongoTemplate.find(pending, Match.class);
+    }
+
+    @Override
+    public Mono<Boolean> clearTeamTask(Long id) {
+        Query withTask = Query.query(Criteria.where("_id").is(id).and("teamTask").exists(true));
+        return mongoTemplate.updateFirst(withTask, new Update().unset("teamTask"), Match.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+
+    public static Query pageQuery(String field, String value, Date afterDate, Long afterId, int size) {
+        Criteria criteria = Criteria.where(field).is(value);
+        if (afterId != null) {
+            // Seek past the last (date, id) of the previous page instead of skipping, so every page costs the same
+            if (afterDate != null) {
+                criteria = criteria.orOperator(
+                        Criteria.where("date").gt(afterDate),
+                        Criteria.where("date").is(afterDate).and("_id").gt(afterId));
+            } else {
+                // Missing dates sort first, so the next page continues among them and then moves on to dated matches
+                criteria = criteria.orOperator(
+                        Criteria.where("date").is(null).and("_id").gt(afterId),
+                        Criteria.where("date").ne(null));
+            }
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "date", "_id"))
+                .limit(size);
+        query.fields().exclude("playerStats");
+        return query;
+    }
+}
@@ -0,0 +1,68 @@
+package com.capstone.cricketmatch.repository;
+
+import java.util.Date;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.capstone.cricketmatch.entity.MatchRollup;
+import com.capstone.cricketmatch.entity.RollupIncrement;
+
+import reactor.core.publisher.Mono;
+
+// One MatchRollup type stored in a collection per dimension, so it is read and written by collection name
+@Repository
+public class MatchRollupRepository {
+
+    public static final String VENUES = "venue_rollups";
+    public static final String TEAMS = "team_rollups";
+    public static final String MONTHS = "month_rollups";
+
+    // Ids of the matches added recently, so adding one again is a no-op; RollupService trims it once a match is done
+    private static final String APPLIED = "appliedMatches";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public MatchRollupRepository(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Point read by _id
+    public Mono<MatchRollup> find(String collection, String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().exclude(APPLIED);
+        return mongoTemplate.findOne(query, MatchRollup.class, collection);
+    }
+
+    // Adds one match to one rollup, creating it on its first match. The increments and the match id go in with one
+    // single-document update that only matches while the id is absent, so concurrent matches never lose each other's
+    // counts and a retry of the same match adds nothing. The upsert is the only step that can insert, so when two
+    // first matches race it fails on the duplicate _id; it is then sent again as a plain update of the rollup the
+    // other one created, which still adds nothing if the match is already in it.
+    public Mono<Void> apply(Long matchId, RollupIncrement increment, Date now) {
+        Query notYetApplied = Query.query(Criteria.where("_id").is(increment.getKey()).and(APPLIED).ne(matchId));
+        Update update = new Update()
+                .inc("matches", 1)
+                .inc("decided", increment.getDecided())
+                .inc("wins", increment.getWins())
+                .inc("losses", increment.getLosses())
+                .inc("runs", increment.getRuns())
+                .inc("wickets", increment.getWickets())
+                .inc("legalBalls", increment.getLegalBalls())
+                .addToSet(APPLIED, matchId)
+                .set("updatedAt", now);
+        return mongoTemplate.upsert(notYetApplied, update, MatchRollup.class, increment.getCollection())
+                .onErrorResume(DuplicateKeyException.class,
+                        error -> mongoTemplate.updateFirst(notYetApplied, update, MatchRollup.class, increment.getCollection()))
+                .then();
+    }
+
+    public Mono<Void> forget(Long matchId, RollupIncrement increment) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(increment.getKey())),
+                new Update().pull(APPLIED, matchId), MatchRollup.class, increment.getCollection()).then();
+    }
+}
@@ -0,0 +1,10 @@
+package com.capstone.cricketmatch.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.capstone.cricketmatch.entity.PlayerBallStat;
+
+@Repository
+public interface PlayerBallStatRepository extends ReactiveMongoRepository<PlayerBallStat, String>, PlayerBallStatRepositoryCustom {
+}
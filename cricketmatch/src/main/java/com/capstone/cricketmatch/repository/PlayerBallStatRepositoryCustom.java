@@ -0,0 +1,20 @@
+package com.capstone.cricketmatch.repository;
+
+import java.util.Date;
+
+import com.capstone.cricketmatch.dto.OverStats;
+import com.capstone.cricketmatch.entity.PlayerBallStat;
+
+import reactor.core.publisher.Flux;
+
+public interface PlayerBallStatRepositoryCustom {
+
+    // One player's points in a match in the order they were recorded, optionally limited to [from, to)
+    Flux<PlayerBallStat> findSeries(Long matchId, String playerId, Date from, Date to);
+
+    // Bowling figures of every over of a match, in innings and over order
+    Flux<OverStats> findOverStats(Long matchId);
+
+    // Sequence and role of every point stored for a match, to find the ones a failed write left out
+    Flux<PlayerBallStat> findRecorded(Long matchId);
+}
@@ -0,0 +1,68 @@
+package com.capstone.cricketmatch.repository;
+
+import java.util.Date;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.capstone.cricketmatch.dto.OverStats;
+import com.capstone.cricketmatch.entity.PlayerBallStat;
+
+import reactor.core.publisher.Flux;
+
+public class PlayerBallStatRepositoryCustomImpl implements PlayerBallStatRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public PlayerBallStatRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<PlayerBallStat> findSeries(Long matchId, String playerId, Date from, Date to) {
+        return mongoTemplate.find(seriesQuery(matchId, playerId, from, to), PlayerBallStat.class);
+    }
+
+    @Override
+    public Flux<OverStats> findOverStats(Long matchId) {
+        // Every over has a single bowler, so the bowler's points of that over add up to the over
+        Aggregation overs = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("series.matchId").is(matchId).and("role").is(PlayerBallStat.BOWLING)),
+                Aggregation.group(Fields.from(Fields.field("innings"), Fields.field("over"),
+                                Fields.field("bowlerId", "series.playerId")))
+                        .sum("runs").as("runs")
+                        .sum("wickets").as("wickets")
+                        .sum("balls").as("balls"),
+                Aggregation.project("runs", "wickets", "balls")
+                        .and("_id.innings").as("innings")
+                        .and("_id.over").as("over")
+                        .and("_id.bowlerId").as("bowlerId")
+                        .andExclude("_id"),
+                Aggregation.sort(Sort.Direction.ASC, "innings", "over"));
+        return mongoTemplate.aggregate(overs, PlayerBallStat.class, OverStats.class);
+    }
+
+    @Override
+    public Flux<PlayerBallStat> findRecorded(Long matchId) {
+        Query query = Query.query(Criteria.where("series.matchId").is(matchId));
+        query.fields().include("sequence", "role");
+        return mongoTemplate.find(query, PlayerBallStat.class);
+    }
+
+    // Served by the series_match_player_time index; the time range bounds which buckets are opened at all
+    public static Query seriesQuery(Long matchId, String playerId, Date from, Date to) {
+        Criteria criteria = Criteria.where("series.matchId").is(matchId).and("series.playerId").is(playerId);
+        if (from != null && to != null) {
+            criteria = criteria.and("recordedAt").gte(from).lt(to);
+        } else if (from != null) {
+            criteria = criteria.and("recordedAt").gte(from);
+        } else if (to != null) {
+            criteria = criteria.and("recordedAt").lt(to);
+        }
+        return Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "recordedAt", "sequence"));
+    }
+}
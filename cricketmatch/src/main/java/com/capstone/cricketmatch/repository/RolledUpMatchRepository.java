@@ -0,0 +1,11 @@
+package com.capstone.cricketmatch.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.capstone.cricketmatch.entity.RolledUpMatch;
+
+@Repository
+public interface RolledUpMatchRepository
+        extends ReactiveMongoRepository<RolledUpMatch, Long>, RolledUpMatchRepositoryCustom {
+}
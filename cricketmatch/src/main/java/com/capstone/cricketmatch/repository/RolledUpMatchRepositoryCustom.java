@@ -0,0 +1,26 @@
+package com.capstone.cricketmatch.repository;
+
+import java.util.Date;
+
+import com.capstone.cricketmatch.entity.RolledUpMatch;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface RolledUpMatchRepositoryCustom {
+
+    // Atomically takes the oldest due entry (pending and due, or in progress with an expired lease) and leases it
+    // until leaseUntil. Empty when nothing is due.
+    Mono<RolledUpMatch> claimNext(Date now, Date leaseUntil);
+
+    // The updates below only apply while the caller's claim, identified by its attempts, is the latest one.
+    // Emit true when they did.
+    Mono<Boolean> markDone(Long matchId, int attempts, Date now);
+
+    Mono<Boolean> reschedule(Long matchId, int attempts, Date nextAttemptAt, String error);
+
+    // Entries done before the given time, whose match ids can leave the rollups' applied lists
+    Flux<RolledUpMatch> findDoneBefore(Date before, int limit);
+
+    Mono<Void> markClosed(Long matchId);
+}
@@ -0,0 +1,78 @@
+package com.capstone.cricketmatch.repository;
+
+import java.util.Date;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.capstone.cricketmatch.entity.RolledUpMatch;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class RolledUpMatchRepositoryCustomImpl implements RolledUpMatchRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public RolledUpMatchRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<RolledUpMatch> claimNext(Date now, Date leaseUntil) {
+        // Same shape as the team outbox: a lease is stored in nextAttemptAt, so one index finds due and abandoned entries
+        Query due = Query.query(Criteria.where("status")
+                        .in(RolledUpMatch.PENDING, RolledUpMatch.IN_PROGRESS)
+                        .and("nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        Update lease = new Update()
+                .set("status", RolledUpMatch.IN_PROGRESS)
+                .set("nextAttemptAt", leaseUntil)
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(due, lease, FindAndModifyOptions.options().returnNew(true),
+                RolledUpMatch.class);
+    }
+
+    @Override
+    public Mono<Boolean> markDone(Long matchId, int attempts, Date now) {
+        return updateClaimed(matchId, attempts, new Update()
+                .set("status", RolledUpMatch.DONE)
+                .set("completedAt", now)
+                .unset("nextAttemptAt")
+                .unset("lastError"));
+    }
+
+    @Override
+    public Mono<Boolean> reschedule(Long matchId, int attempts, Date nextAttemptAt, String error) {
+        return updateClaimed(matchId, attempts, new Update()
+                .set("status", RolledUpMatch.PENDING)
+                .set("nextAttemptAt", nextAttemptAt)
+                .set("lastError", error));
+    }
+
+    @Override
+    public Flux<RolledUpMatch> findDoneBefore(Date before, int limit) {
+        Query query = Query.query(Criteria.where("status").is(RolledUpMatch.DONE).and("completedAt").lt(before))
+                .limit(limit);
+        return mongoTemplate.find(query, RolledUpMatch.class);
+    }
+
+    @Override
+    public Mono<Void> markClosed(Long matchId) {
+        Query query = Query.query(Criteria.where("_id").is(matchId).and("status").is(RolledUpMatch.DONE));
+        return mongoTemplate.updateFirst(query, new Update().set("status", RolledUpMatch.CLOSED),
+                RolledUpMatch.class).then();
+    }
+
+    private Mono<Boolean> updateClaimed(Long matchId, int attempts, Update update) {
+        Query claimed = Query.query(Criteria.where("_id").is(matchId)
+                .and("status").is(RolledUpMatch.IN_PROGRESS)
+                .and("attempts").is(attempts));
+        return mongoTemplate.updateFirst(claimed, update, RolledUpMatch.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+}
@@ -0,0 +1,24 @@
+package com.capstone.cricketmatch.repository;
+
+import java.util.Date;
+
+import com.capstone.cricketmatch.entity.TeamProvisioningTask;
+
+import reactor.core.publisher.Mono;
+
+public interface TeamProvisioningTaskRepositoryCustom {
+
+    // Atomically takes the oldest due task (pending and due, or in progress with an expired lease) and leases it
+    // until leaseUntil. Empty when nothing is due.
+    Mono<TeamProvisioningTask> claimNext(Date now, Date leaseUntil);
+
+    // The updates below only apply while the caller's claim, identified by its attempts, is the latest one, so an
+    // instance whose lease ran out cannot overwrite the outcome of the one that took the task over. Emit true when
+    // they did.
+    Mono<Boolean> markDone(Long matchId, int attempts, Date now);
+
+    // Puts a task back to PENDING for another attempt at nextAttemptAt
+    Mono<Boolean> reschedule(Long matchId, int attempts, Date nextAttemptAt, String error);
+
+    Mono<Boolean> markFailed(Long matchId, int attempts, String error);
+}
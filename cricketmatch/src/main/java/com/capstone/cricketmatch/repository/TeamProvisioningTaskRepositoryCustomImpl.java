@@ -0,0 +1,74 @@
+package com.capstone.cricketmatch.repository;
+
+import java.util.Date;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.capstone.cricketmatch.entity.TeamProvisioningTask;
+
+import reactor.core.publisher.Mono;
+
+public class TeamProvisioningTaskRepositoryCustomImpl implements TeamProvisioningTaskRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public TeamProvisioningTaskRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<TeamProvisioningTask> claimNext(Date now, Date leaseUntil) {
+        // A lease is stored in nextAttemptAt too, so one (status, nextAttemptAt) index finds due and abandoned tasks alike
+        Query due = Query.query(Criteria.where("status")
+                        .in(TeamProvisioningTask.PENDING, TeamProvisioningTask.IN_PROGRESS)
+                        .and("nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        Update lease = new Update()
+                .set("status", TeamProvisioningTask.IN_PROGRESS)
+                .set("nextAttemptAt", leaseUntil)
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(due, lease, FindAndModifyOptions.options().returnNew(true),
+                TeamProvisioningTask.class);
+    }
+
+    @Override
+    public Mono<Boolean> markDone(Long matchId, int attempts, Date now) {
+        return update(matchId, attempts, new Update()
+                .set("status", TeamProvisioningTask.DONE)
+                .set("completedAt", now)
+                .unset("nextAttemptAt")
+                .unset("lastError"));
+    }
+
+    @Override
+    public Mono<Boolean> reschedule(Long matchId, int attempts, Date nextAttemptAt, String error) {
+        return update(matchId, attempts, new Update()
+                .set("status", TeamProvisioningTask.PENDING)
+                .set("nextAttemptAt", nextAttemptAt)
+                .set("lastError", error));
+    }
+
+    @Override
+    public Mono<Boolean> markFailed(Long matchId, int attempts, String error) {
+        return update(matchId, attempts, new Update()
+                .set("status", TeamProvisioningTask.FAILED)
+                .unset("nextAttemptAt")
+                .set("lastError", error));
+    }
+
+    private Mono<Boolean> update(Long matchId, int attempts, Update update) {
+        return mongoTemplate.updateFirst(claimed(matchId, attempts), update, TeamProvisioningTask.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+
+    private static Query claimed(Long matchId, int attempts) {
+        return Query.query(Criteria.where("_id").is(matchId)
+                .and("status").is(TeamProvisioningTask.IN_PROGRESS)
+                .and("attempts").is(attempts));
+    }
+}
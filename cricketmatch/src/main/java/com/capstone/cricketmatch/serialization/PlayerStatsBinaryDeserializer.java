@@ -0,0 +1,26 @@
+package com.capstone.cricketmatch.serialization;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.capstone.cricketmatch.entity.PlayerStats;
+import com.capstone.wireformat.WireFormat;
+
+public class PlayerStatsBinaryDeserializer implements Deserializer<PlayerStats> {
+
+    @Override
+    public PlayerStats deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        WireFormat.Reader reader = new WireFormat.Reader(data);
+        byte version = reader.readVersion(WireFormat.VERSION_2);
+
+        PlayerStats playerStats = new PlayerStats(reader.readString(), reader.readString(),
+                reader.readInt(), reader.readInt());
+        playerStats.setMatchCode(reader.readString());
+        if (version >= WireFormat.VERSION_2) {
+            playerStats.setEventId(reader.readLong());
+        }
+        return playerStats;
+    }
+}
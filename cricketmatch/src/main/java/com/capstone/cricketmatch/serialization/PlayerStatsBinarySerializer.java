@@ -0,0 +1,33 @@
+package com.capstone.cricketmatch.serialization;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.capstone.cricketmatch.entity.PlayerStats;
+import com.capstone.wireformat.WireFormat;
+
+// Compact alternative to JsonSerializer for score events, selected with matches.kafka.value-format=binary
+public class PlayerStatsBinarySerializer implements Serializer<PlayerStats> {
+
+    @Override
+    public byte[] serialize(String topic, PlayerStats playerStats) {
+        if (playerStats == null) {
+            return null;
+        }
+        byte[] userId = WireFormat.utf8(playerStats.getPlayerId());
+        byte[] userName = WireFormat.utf8(playerStats.getPlayerName());
+        byte[] matchCode = WireFormat.utf8(playerStats.getMatchCode());
+        int capacity = 1 + WireFormat.sizeOf(userId) + WireFormat.sizeOf(userName)
+                + 2 * WireFormat.MAX_VARINT_BYTES + WireFormat.sizeOf(matchCode) + WireFormat.MAX_VARLONG_BYTES;
+
+        // Version 2 field order: userId, userName, currentScore, currentWickets, matchCode, eventId
+        return new WireFormat.Writer(capacity)
+                .writeByte(WireFormat.VERSION_2)
+                .writeString(userId)
+                .writeString(userName)
+                .writeInt(playerStats.getRunsScored())
+                .writeInt(playerStats.getWicketsTaken())
+                .writeString(matchCode)
+                .writeLong(playerStats.getEventId())
+                .toByteArray();
+    }
+}
@@ -0,0 +1,84 @@
+package com.capstone.cricketmatch.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.capstone.cricketmatch.entity.PlayerStats;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+// One multicast channel per match code; every viewer shares it instead of polling Mongo
+@Service
+public class LiveScoreHub {
+
+    // Updates a slow viewer may fall behind by before the oldest ones are dropped (latest value wins)
+    @Value("${matches.live.subscriber-buffer:16}")
+    private int subscriberBuffer;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    public LiveScoreHub(MeterRegistry meterRegistry) {
+        Gauge.builder("matches.live.channels", channels, Map::size)
+                .description("Matches with at least one live viewer")
+                .register(meterRegistry);
+        Gauge.builder("matches.live.viewers", channels,
+                        map -> map.values().stream().mapToInt(channel -> channel.viewers).sum())
+                .description("Open live score streams")
+                .register(meterRegistry);
+    }
+
+    public void publish(PlayerStats playerStats) {
+        if (playerStats.getMatchCode() == null) {
+            return;
+        }
+        Channel channel = channels.get(playerStats.getMatchCode());
+        if (channel != null) {
+            channel.emit(playerStats);
+        }
+    }
+
+    public Flux<PlayerStats> subscribe(String matchCode) {
+        return Flux.defer(() -> acquire(matchCode).sink.asFlux())
+                .onBackpressureBuffer(subscriberBuffer, dropped -> { }, BufferOverflowStrategy.DROP_OLDEST)
+                .doFinally(signal -> release(matchCode));
+    }
+
+    public int viewerCount(String matchCode) {
+        Channel channel = channels.get(matchCode);
+        return channel == null ? 0 : channel.viewers;
+    }
+
+    private Channel acquire(String matchCode) {
+        return channels.compute(matchCode, (code, channel) -> {
+            Channel current = channel != null ? channel : new Channel();
+            current.viewers++;
+            return current;
+        });
+    }
+
+    // The channel is dropped with its last viewer, so finished matches do not linger in memory
+    private void release(String matchCode) {
+        channels.computeIfPresent(matchCode, (code, channel) -> --channel.viewers == 0 ? null : channel);
+    }
+
+    private static final class Channel {
+
+        // Best effort: a viewer without demand never holds up the others; its own buffer absorbs bursts
+        private final Sinks.Many<PlayerStats> sink = Sinks.many().multicast().directBestEffort();
+        // Only mutated inside ConcurrentHashMap.compute for this channel's key
+        private int viewers;
+
+        // Scores can be scheduled from several request threads at once and a sink needs serialized emission
+        synchronized void emit(PlayerStats playerStats) {
+            sink.tryEmitNext(playerStats);
+        }
+    }
+}
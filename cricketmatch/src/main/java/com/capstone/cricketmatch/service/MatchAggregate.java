@@ -0,0 +1,165 @@
+package com.capstone.cricketmatch.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.capstone.cricketmatch.entity.BallEvent;
+import com.capstone.cricketmatch.entity.InningsSummary;
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.PlayerStats;
+
+// In-memory state of one match: its last snapshot with every later ball folded in. Applying a ball is O(1),
+// a map lookup per player, instead of rewriting the match's whole player list.
+public class MatchAggregate {
+
+    private final Long matchId;
+    private final String matchCode;
+    private final String status;
+    private final Map<String, PlayerStats> players = new LinkedHashMap<>();
+    private final Map<Integer, InningsSummary> innings = new TreeMap<>();
+    // Sequence of the last ball folded in, and of the last one the stored snapshot contains
+    private long lastSequence;
+    private long snapshotSequence;
+    // Sequence of the last ball in the innings scores; behind lastSequence while a snapshot stored before innings
+    // were kept is rebuilt
+    private long inningsSequence;
+    // A snapshot write is under way; no other is handed out until it succeeds or fails
+    private boolean snapshotting;
+
+    public MatchAggregate(Match match) {
+        this.matchId = match.getId();
+        this.matchCode = match.getCode();
+        this.status = match.getStatus();
+        this.lastSequence = match.getSnapshotSequence();
+        this.snapshotSequence = match.getSnapshotSequence();
+        if (match.getPlayerStats() != null) {
+            for (PlayerStats stats : match.getPlayerStats()) {
+                players.put(stats.getPlayerId(), copy(stats));
+            }
+        }
+        if (match.getInnings() != null) {
+            for (InningsSummary summary : match.getInnings()) {
+                innings.put(summary.getInnings(), summary.copy());
+            }
+            this.inningsSequence = match.getSnapshotSequence();
+        }
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    // Gives a new ball the next sequence of this match and folds it in
+    public synchronized BallEvent append(BallEvent ball) {
+        ball.setMatchId(matchId);
+        ball.setSequence(lastSequence + 1);
+        apply(ball);
+        return ball;
+    }
+
+    // Where a rebuild has to start replaying the stored balls
+    public synchronized long replayFrom() {
+        return Math.min(lastSequence, inningsSequence);
+    }
+
+    // Replays a stored ball; what the snapshot already contains is skipped
+    public synchronized void apply(BallEvent ball) {
+        if (ball.getSequence() > inningsSequence) {
+            innings.computeIfAbsent(ball.getInnings(), InningsSummary::new).add(ball);
+            inningsSequence = ball.getSequence();
+        }
+        if (ball.getSequence() <= lastSequence) {
+            return;
+        }
+        if (ball.getRuns() > 0) {
+            PlayerStats batter = player(ball.getBatterId(), ball.getBatterName());
+            batter.setRunsScored(batter.getRunsScored() + ball.getRuns());
+        }
+        if (ball.isWicket() && !BallEvent.RUN_OUT.equals(ball.getWicketKind())) {
+            PlayerStats bowler = player(ball.getBowlerId(), ball.getBowlerName());
+            bowler.setWicketsTaken(bowler.getWicketsTaken() + 1);
+        }
+        lastSequence = ball.getSequence();
+    }
+
+    // The state to write when at least every balls have been added since the stored snapshot and no write is under
+    // way, otherwise null. Report the outcome with snapshotSaved or snapshotFailed.
+    public synchronized Snapshot snapshotIfDue(int every) {
+        if (snapshotting || lastSequence - snapshotSequence < every) {
+            return null;
+        }
+        snapshotting = true;
+        return view();
+    }
+
+    public synchronized void snapshotSaved(long sequence) {
+        snapshotSequence = Math.max(snapshotSequence, sequence);
+        snapshotting = false;
+    }
+
+    // The balls stay due, so the next one tries again
+    public synchronized void snapshotFailed() {
+        snapshotting = false;
+    }
+
+    // The current state, for reads and for the final snapshot; changes nothing
+    public synchronized Snapshot view() {
+        List<PlayerStats> playerStats = new ArrayList<>(players.size());
+        for (PlayerStats stats : players.values()) {
+            playerStats.add(copy(stats));
+        }
+        List<InningsSummary> inningsSummaries = new ArrayList<>(innings.size());
+        for (InningsSummary summary : innings.values()) {
+            inningsSummaries.add(summary.copy());
+        }
+        return new Snapshot(playerStats, inningsSummaries, lastSequence);
+    }
+
+    private PlayerStats player(String userId, String userName) {
+        return players.computeIfAbsent(userId, id -> {
+            PlayerStats stats = new PlayerStats(id, userName, 0, 0);
+            stats.setMatchCode(matchCode);
+            return stats;
+        });
+    }
+
+    private static PlayerStats copy(PlayerStats stats) {
+        PlayerStats copy = new PlayerStats(stats.getPlayerId(), stats.getPlayerName(),
+                stats.getRunsScored(), stats.getWicketsTaken());
+        copy.setMatchCode(stats.getMatchCode());
+        return copy;
+    }
+
+    // Player stats and innings scores as of a given ball, detached from the aggregate
+    public static final class Snapshot {
+
+        private final List<PlayerStats> playerStats;
+        private final List<InningsSummary> innings;
+        private final long sequence;
+
+        Snapshot(List<PlayerStats> playerStats, List<InningsSummary> innings, long sequence) {
+            this.playerStats = playerStats;
+            this.innings = innings;
+            this.sequence = sequence;
+        }
+
+        public List<PlayerStats> getPlayerStats() {
+            return playerStats;
+        }
+
+        public List<InningsSummary> getInnings() {
+            return innings;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+    }
+}
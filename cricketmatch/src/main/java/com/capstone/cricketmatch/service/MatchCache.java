@@ -0,0 +1,145 @@
+package com.capstone.cricketmatch.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.capstone.cricketmatch.dto.MatchCacheInvalidation;
+import com.capstone.cricketmatch.entity.Match;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Read-through near-cache for match lookups; matches only change in createMatch, startMatch, endMatch and snapshots
+@Component
+public class MatchCache {
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Cache<String, Match> byCode;
+    private final Cache<String, List<Match>> byStatus;
+    private final Cache<String, List<Match>> byLocation;
+
+    // Bumped on every invalidation so a load that raced with one does not put stale data back
+    private final AtomicLong generation = new AtomicLong();
+
+    private final KafkaTemplate<String, MatchCacheInvalidation> invalidationTemplate;
+
+    @Value("${matches.cache.invalidation.enabled:false}")
+    private boolean broadcastInvalidations;
+
+    @Value("${matches.cache.invalidation.topic:match-cache-invalidation}")
+    private String invalidationTopic;
+
+    public MatchCache(@Value("${matches.cache.max-size:10000}") long maxSize,
+                      @Value("${matches.cache.ttl:10m}") Duration ttl,
+                      KafkaTemplate<String, MatchCacheInvalidation> invalidationTemplate,
+                      MeterRegistry meterRegistry) {
+        this.byCode = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.byStatus = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.byLocation = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.invalidationTemplate = invalidationTemplate;
+        // Hit ratio, evictions and load counts per cache under cache.* with a cache tag
+        CaffeineCacheMetrics.monitor(meterRegistry, byCode, "matches.by-code");
+        CaffeineCacheMetrics.monitor(meterRegistry, byStatus, "matches.by-status");
+        CaffeineCacheMetrics.monitor(meterRegistry, byLocation, "matches.by-location");
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public Mono<Match> getByCode(String code, Function<String, Mono<Match>> loader) {
+        Match cached = byCode.getIfPresent(code);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        long loadedAt = generation.get();
+        return loader.apply(code)
+                .doOnNext(match -> putIfCurrent(byCode, code, match, loadedAt));
+    }
+
+    public Flux<Match> getByStatus(String status, Function<String, Flux<Match>> loader) {
+        return readList(byStatus, status, loader);
+    }
+
+    public Flux<Match> getByLocation(String location, Function<String, Flux<Match>> loader) {
+        return readList(byLocation, location, loader);
+    }
+
+    // Drops every entry the match can appear in, locally and (when enabled) on the other instances
+    public void invalidate(Match match, String previousStatus) {
+        List<String> statuses = new ArrayList<>();
+        statuses.add(match.getStatus());
+        if (previousStatus != null && !previousStatus.equals(match.getStatus())) {
+            statuses.add(previousStatus);
+        }
+        MatchCacheInvalidation invalidation =
+                new MatchCacheInvalidation(instanceId, match.getCode(), statuses, match.getLocation());
+        apply(invalidation);
+
+        if (broadcastInvalidations) {
+            invalidationTemplate.send(invalidationTopic, match.getCode(), invalidation)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            System.out.println("Failed to broadcast match cache invalidation: " + error);
+                        }
+                    });
+        }
+    }
+
+    // Every instance listens in its own consumer group so each one sees every invalidation
+    @KafkaListener(topics = "${matches.cache.invalidation.topic:match-cache-invalidation}",
+            groupId = "match-cache-#{__listener.instanceId}",
+            autoStartup = "${matches.cache.invalidation.enabled:false}",
+            properties = "auto.offset.reset=latest")
+    public void onRemoteInvalidation(MatchCacheInvalidation invalidation) {
+        if (!instanceId.equals(invalidation.getOrigin())) {
+            apply(invalidation);
+        }
+    }
+
+    private void apply(MatchCacheInvalidation invalidation) {
+        generation.incrementAndGet();
+        if (invalidation.getCode() != null) {
+            byCode.invalidate(invalidation.getCode());
+        }
+        if (invalidation.getStatuses() != null) {
+            byStatus.invalidateAll(invalidation.getStatuses());
+        }
+        if (invalidation.getLocation() != null) {
+            byLocation.invalidate(invalidation.getLocation());
+        }
+    }
+
+    private Flux<Match> readList(Cache<String, List<Match>> cache, String key, Function<String, Flux<Match>> loader) {
+        List<Match> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Flux.fromIterable(cached);
+        }
+        long loadedAt = generation.get();
+        return loader.apply(key)
+                .collectList()
+                .doOnNext(matches -> putIfCurrent(cache, key, List.copyOf(matches), loadedAt))
+                .flatMapIterable(matches -> matches);
+    }
+
+    private <V> void putIfCurrent(Cache<String, V> cache, String key, V value, long loadedAt) {
+        if (generation.get() == loadedAt) {
+            cache.put(key, value);
+        }
+    }
+}
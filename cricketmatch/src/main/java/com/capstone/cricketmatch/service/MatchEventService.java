@@ -0,0 +1,227 @@
+package com.capstone.cricketmatch.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.capstone.cricketmatch.dto.OverStats;
+import com.capstone.cricketmatch.entity.BallEvent;
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.PlayerBallStat;
+import com.capstone.cricketmatch.repository.BallEventRepository;
+import com.capstone.cricketmatch.repository.MatchRepository;
+import com.capstone.cricketmatch.repository.PlayerBallStatRepository;
+import com.capstone.ids.IdAllocator;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Ball-by-ball scoring: balls are appended to the event store and folded into a per-match aggregate held in memory.
+// Match.playerStats and Match.innings are only a snapshot of that aggregate, written every few balls and when the
+// match ends; a node that lost its aggregates rebuilds them from the snapshot plus the balls recorded after it.
+// Each ball also adds a batting and a bowling point to the player_ball_stats time series, which the range reads scan;
+// points whose write failed are rebuilt from the event store.
+@Service
+public class MatchEventService {
+
+    @Autowired
+    private BallEventRepository ballEventRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PlayerBallStatRepository playerBallStatRepository;
+
+    @Autowired
+    private MatchCache matchCache;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Balls between two snapshots; also the most a rebuild has to replay on top of the last one
+    @Value("${matches.events.snapshot-every:6}")
+    private int snapshotEvery;
+
+    private final AsyncCache<Long, MatchAggregate> aggregates;
+
+    // Matches with a failed series write, for the next repair run
+    private final Set<Long> seriesToRepair = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean repairing = new AtomicBoolean();
+
+    // Balls younger than this may still have their own series write in flight, so the scheduled repair leaves them
+    @Value("${matches.events.series-repair-after:1m}")
+    private Duration seriesRepairAfter;
+
+    public MatchEventService(@Value("${matches.events.aggregate-idle:30m}") Duration aggregateIdle) {
+        // An idle match is dropped from memory; the next ball rebuilds it from Mongo
+        this.aggregates = Caffeine.newBuilder().expireAfterAccess(aggregateIdle).buildAsync();
+    }
+
+    // Balls of one match are expected from a single scorer; a ball that fails to store drops the aggregate,
+    // so the next one starts again from what Mongo has
+    public Mono<BallEvent> recordBall(Long matchId, BallEvent ball) {
+        if (ball.getBatterId() == null || ball.getBowlerId() == null) {
+            return Mono.error(new RuntimeException("Batter and bowler are required"));
+        }
+        return aggregate(matchId).flatMap(aggregate -> {
+            if (!"Ongoing".equals(aggregate.getStatus())) {
+                return Mono.error(new RuntimeException("Match is not ongoing"));
+            }
+            ball.setId(idAllocator.nextId());
+            ball.setRecordedAt(new Date());
+            aggregate.append(ball);
+            return ballEventRepository.insert(ball)
+                    .doOnError(error -> evict(matchId))
+                    .flatMap(saved -> {
+                        MatchAggregate.Snapshot due = aggregate.snapshotIfDue(snapshotEvery);
+                        Mono<Void> snapshot = due == null ? Mono.empty() : writeSnapshot(aggregate, due);
+                        return Mono.when(writeSeries(saved), snapshot).thenReturn(saved);
+                    });
+        });
+    }
+
+    // The match with its player stats as of the latest ball rather than the latest snapshot
+    public Mono<Match> withLiveStats(Match match) {
+        return aggregate(match).map(aggregate -> {
+            MatchAggregate.Snapshot snapshot = aggregate.view();
+            match.setPlayerStats(snapshot.getPlayerStats());
+            match.setInnings(snapshot.getInnings());
+            match.setSnapshotSequence(snapshot.getSequence());
+            return match;
+        });
+    }
+
+    // One player's batting and bowling points in a match, oldest first; from and to are optional
+    public Flux<PlayerBallStat> getPlayerSeries(Long matchId, String playerId, Date from, Date to) {
+        return playerBallStatRepository.findSeries(matchId, playerId, from, to);
+    }
+
+    public Flux<OverStats> getOverStats(Long matchId) {
+        return playerBallStatRepository.findOverStats(matchId);
+    }
+
+    // Retries the matches whose series writes failed on this instance
+    @Scheduled(fixedDelayString = "${matches.events.series-repair-interval:30s}")
+    public void repairFailedSeries() {
+        if (seriesToRepair.isEmpty() || !repairing.compareAndSet(false, true)) {
+            return;
+        }
+        List<Long> matchIds = new ArrayList<>(seriesToRepair);
+        seriesToRepair.removeAll(matchIds);
+        Date before = new Date(System.currentTimeMillis() - seriesRepairAfter.toMillis());
+        Flux.fromIterable(matchIds)
+                .concatMap(matchId -> completeSeries(matchId, before))
+                .doFinally(signal -> repairing.set(false))
+                .subscribe();
+    }
+
+    // Adds the points a failed write or a crash left out of a match's series. Also run when the match ends, once
+    // its scorer has stopped, so points lost with the instance that recorded their ball are back as well.
+    public Mono<Void> completeSeries(Long matchId) {
+        return completeSeries(matchId, new Date());
+    }
+
+    private Mono<Void> completeSeries(Long matchId, Date before) {
+        return repairSeries(matchId, before)
+                .onErrorResume(error -> {
+                    seriesToRepair.add(matchId);
+                    System.out.println("Failed to repair the player series of match " + matchId + ": " + error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // Adds the missing points of balls recorded before the given time and emits how many there were; a match with
+    // later balls missing points stays queued
+    public Mono<Long> repairSeries(Long matchId, Date before) {
+        return playerBallStatRepository.findRecorded(matchId)
+                .map(point -> point.getSequence() + point.getRole())
+                .collect(Collectors.toSet())
+                .flatMap(recorded -> ballEventRepository.findByMatchIdAndSequenceGreaterThanOrderBySequenceAsc(matchId, 0)
+                        .flatMapIterable(ball -> List.of(PlayerBallStat.batting(ball), PlayerBallStat.bowling(ball)))
+                        .filter(point -> !recorded.contains(point.getSequence() + point.getRole()))
+                        .filter(point -> {
+                            if (point.getRecordedAt().before(before)) {
+                                return true;
+                            }
+                            seriesToRepair.add(matchId);
+                            return false;
+                        })
+                        .collectList())
+                .flatMap(missing -> missing.isEmpty()
+                        ? Mono.just(0L)
+                        : playerBallStatRepository.insert(missing).count())
+                .doOnNext(repaired -> meterRegistry.counter("matches.events.series.points", "outcome", "repaired")
+                        .increment(repaired));
+    }
+
+    // Called whenever the match document changes status, so the next ball sees the new one
+    public void evict(Long matchId) {
+        aggregates.synchronous().invalidate(matchId);
+    }
+
+    private Mono<Void> writeSnapshot(MatchAggregate aggregate, MatchAggregate.Snapshot snapshot) {
+        return matchRepository.saveSnapshot(aggregate.getMatchId(), snapshot.getPlayerStats(), snapshot.getInnings(),
+                        snapshot.getSequence())
+                .doOnNext(match -> matchCache.invalidate(match, null))
+                // Nothing emitted means a later snapshot is already stored, which covers this one too
+                .doOnSuccess(match -> aggregate.snapshotSaved(snapshot.getSequence()))
+                // The balls are stored either way; a missed snapshot only makes the next rebuild replay more of them
+                .onErrorResume(error -> {
+                    aggregate.snapshotFailed();
+                    System.out.println("Failed to snapshot match " + aggregate.getMatchId() + ": " + error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> writeSeries(BallEvent ball) {
+        return playerBallStatRepository.insert(List.of(PlayerBallStat.batting(ball), PlayerBallStat.bowling(ball)))
+                // The ball itself is stored, so the ball is not failed; its points are rebuilt from it by the repair
+                .onErrorResume(error -> {
+                    seriesToRepair.add(ball.getMatchId());
+                    meterRegistry.counter("matches.events.series.points", "outcome", "failed").increment(2);
+                    System.out.println("Failed to add ball " + ball.getSequence() + " of match " + ball.getMatchId()
+                            + " to the player series, queued for repair: " + error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<MatchAggregate> aggregate(Long matchId) {
+        return Mono.fromFuture(() -> aggregates.get(matchId, (id, executor) -> matchRepository.findById(id)
+                .switchIfEmpty(Mono.error(new RuntimeException("Match not found")))
+                .flatMap(this::rebuild)
+                .toFuture()), true);
+    }
+
+    private Mono<MatchAggregate> aggregate(Match match) {
+        return Mono.fromFuture(() -> aggregates.get(match.getId(), (id, executor) -> rebuild(match).toFuture()), true);
+    }
+
+    private Mono<MatchAggregate> rebuild(Match match) {
+        MatchAggregate aggregate = new MatchAggregate(match);
+        return ballEventRepository.findByMatchIdAndSequenceGreaterThanOrderBySequenceAsc(match.getId(),
+                        aggregate.replayFrom())
+                .doOnNext(aggregate::apply)
+                .then(Mono.just(aggregate));
+    }
+}
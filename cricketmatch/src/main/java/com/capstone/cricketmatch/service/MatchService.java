@@ -1,15 +1,24 @@
 package com.capstone.cricketmatch.service;
 
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.capstone.cricketmatch.entity.PlayerStats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.TeamProvisioningTask;
 import com.capstone.cricketmatch.repository.MatchRepository;
+import com.capstone.ids.IdAllocator;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -19,36 +28,103 @@ public class MatchService {
     private MatchRepository matchRepository;
 
     @Autowired
-    private TeamServiceClient teamServiceClient;
+    private KafkaTemplate<String, PlayerStats> kafkaTemplate;
 
     @Autowired
-    private KafkaTemplate<String, PlayerStats> kafkaTemplate;
+    private LiveScoreHub liveScoreHub;
+
+    @Autowired
+    private MatchCache matchCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private MatchEventService matchEventService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    // Topic the Players consumer reads score events from
+    @Value("${matches.kafka.topic:match-score}")
+    private String scoreTopic;
+
+    // Documents per Mongo cursor batch for the streaming match endpoint; demand is requested in the same steps
+    @Value("${matches.cursor-batch-size:256}")
+    private int matchesCursorBatchSize;
+
+    // Largest page the keyset endpoints hand out
+    @Value("${matches.page.max-size:200}")
+    private int maxPageSize;
+
+    // The record is handed to the producer right away; the Mono completes with the broker ack
+    public Mono<SendResult<String, PlayerStats>> sendMatchScores(PlayerStats playerStats) {
+        // A client retrying a request can send its own eventId, so Players counts the score once
+        if (playerStats.getEventId() == 0) {
+            playerStats.setEventId(idAllocator.nextId());
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Keyed by match code so all of a match's events share a partition and stay in order
+        CompletableFuture<SendResult<String, PlayerStats>> ack =
+                kafkaTemplate.send(scoreTopic, playerStats.getMatchCode(), playerStats);
+        // Recorded on the broker ack itself, whether or not anyone subscribes to the returned Mono
+        ack.whenComplete((result, error) -> recordSend(sample, error));
+        // Fan the update out to live viewers of the match without another Mongo read
+        liveScoreHub.publish(playerStats);
+        return Mono.fromFuture(ack);
+    }
 
-    private static final String TOPIC = "match-score";
+    private void recordSend(Timer.Sample sample, Throwable error) {
+        sample.stop(Timer.builder("matches.score.send")
+                .description("Time from handing a score event to the producer until the broker acks it")
+                .tag("outcome", error == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        if (error != null) {
+            // KafkaTemplate wraps the client failure in a KafkaProducerException
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            meterRegistry.counter("matches.score.send.errors", "exception", cause.getClass().getSimpleName()).increment();
+        }
+    }
 
-    public void sendMatchScores(PlayerStats playerStats) {
-        kafkaTemplate.send(TOPIC, playerStats);
+    // Sends in request order, so events of one match keep their order on its partition
+    public Mono<List<SendResult<String, PlayerStats>>> sendMatchScores(List<PlayerStats> playerStats) {
+        return Flux.fromIterable(playerStats)
+                .flatMapSequential(this::sendMatchScores)
+                .collectList();
     }
 
+    // Teams are created by TeamProvisioningDispatcher, so creating a match costs one Mongo write: the provisioning
+    // task is embedded in the match document and both are stored, or neither, by a single insert
     public Mono<Match> createMatch(Match match) {
-        return matchRepository.save(match)
-            .flatMap(savedMatch -> {
-                // Call Team Service to create teams
-                return teamServiceClient.createTeamsForMatch(
-                        savedMatch.getId().toString(),
-                        List.of(savedMatch.getTeam1(), savedMatch.getTeam2()),
-                        match.getTeamSize()
-                ).thenReturn(savedMatch);
-            });
+        // The task needs the id up front; the code is filled in from it on insert
+        if (match.getId() == null) {
+            match.setId(idAllocator.nextId());
+        }
+        match.setTeamTask(new TeamProvisioningTask(match, new Date()));
+        // An insert, so a client-supplied id or code of an existing match is rejected instead of replacing it
+        return matchRepository.insert(match)
+            .onErrorMap(DuplicateKeyException.class,
+                error -> new RuntimeException("A match with id " + match.getId() + " or its code already exists"))
+            .doOnNext(savedMatch -> matchCache.invalidate(savedMatch, null));
     }
 
 
     public Flux<Match> getAllMatches(){
-        return matchRepository.findAll();
+        return matchRepository.findAllSummaries();
+    }
+
+    // Streaming variant of getAllMatches: each match is written out as soon as it is read
+    public Flux<Match> streamAllMatches(){
+        return matchRepository.streamAll(matchesCursorBatchSize)
+                .limitRate(matchesCursorBatchSize);
     }
 
     public Mono<Match> getMatchByCode(String code){
-        return matchRepository.findByCode(code);
+        return matchCache.getByCode(code, matchRepository::findByCode);
     }
 
     // public Flux<Match> getMatchesByDate(Date date){
@@ -56,19 +132,35 @@ public class MatchService {
     // }
 
     public Flux<Match> getMatchesByLocation(String location){
-        return matchRepository.findByLocation(location);
+        return matchCache.getByLocation(location, matchRepository::findByLocation);
     }
 
     public Flux<Match> getMatchesByStatus(String status){
-        return matchRepository.findByStatus(status);
+        return matchCache.getByStatus(status, matchRepository::findByStatus);
+    }
+
+    // Keyset pages bypass the cache: they are already bounded and served from the (status, date, _id) index
+    public Flux<Match> getMatchesByStatus(String status, Date afterDate, Long afterId, int size){
+        return matchRepository.findPage("status", status, afterDate, afterId, pageSize(size));
+    }
+
+    public Flux<Match> getMatchesByLocation(String location, Date afterDate, Long afterId, int size){
+        return matchRepository.findPage("location", location, afterDate, afterId, pageSize(size));
+    }
+
+    private int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, maxPageSize));
     }
 
     
     public Mono<Match> startMatch(Long id) {
         return matchRepository.findById(id)
         .flatMap(match -> {
+            String previousStatus = match.getStatus();
             match.setStatus("Ongoing");
-            return matchRepository.save(match);
+            return matchRepository.save(match)
+                .doOnNext(savedMatch -> matchCache.invalidate(savedMatch, previousStatus))
+                .doFinally(signal -> matchEventService.evict(id));
         })
         .switchIfEmpty(Mono.error(new RuntimeException("Match not found")));
     }
@@ -76,9 +168,19 @@ public class MatchService {
     public Mono<Match> endMatch(Long id,String winner) {
         return matchRepository.findById(id)
         .flatMap(match -> {
-            match.setStatus("Completed");
-            match.setWinner(winner);
-            return matchRepository.save(match);
+            String previousStatus = match.getStatus();
+            // The final snapshot is saved with the result, so the stored player stats include the last ball
+            return matchEventService.withLiveStats(match)
+                .flatMap(current -> {
+                    current.setStatus("Completed");
+                    current.setWinner(winner);
+                    return matchRepository.save(current);
+                })
+                // Counted once even when the match is ended again; see RollupService
+                .flatMap(savedMatch -> rollupService.record(savedMatch).thenReturn(savedMatch))
+                .flatMap(savedMatch -> matchEventService.completeSeries(id).thenReturn(savedMatch))
+                .doOnNext(savedMatch -> matchCache.invalidate(savedMatch, previousStatus))
+                .doFinally(signal -> matchEventService.evict(id));
         })
         .switchIfEmpty(Mono.error(new RuntimeException("Match not found")));
     }
@@ -86,10 +188,8 @@ public class MatchService {
 
     public Mono<Match> getMatchStats(Long id) {
         return matchRepository.findById(id)
-                .flatMap(match -> {
-                    // Logic to fetch match stats
-                    return Mono.just(match);
-                })
+                // Player stats as of the latest ball, not just the last snapshot
+                .flatMap(matchEventService::withLiveStats)
                 .switchIfEmpty(Mono.error(new RuntimeException("Match not found")));
     }
 }
@@ -0,0 +1,198 @@
+package com.capstone.cricketmatch.service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import com.capstone.cricketmatch.entity.InningsSummary;
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.MatchRollup;
+import com.capstone.cricketmatch.entity.RollupIncrement;
+import com.capstone.cricketmatch.entity.RolledUpMatch;
+import com.capstone.cricketmatch.repository.BallEventRepository;
+import com.capstone.cricketmatch.repository.MatchRepository;
+import com.capstone.cricketmatch.repository.MatchRollupRepository;
+import com.capstone.cricketmatch.repository.RolledUpMatchRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Materialized rollups per venue, team and month, updated incrementally when a match is completed, so the
+// analytics reads are a single _id lookup instead of a scan of matches. A match is counted exactly once: its
+// rollup_ledger entry is the claim and stores the increments, each rollup remembers the matches it has taken, and
+// RollupSweeper re-applies entries that were not finished, so a failed write is retried instead of lost.
+@Service
+public class RollupService {
+
+    @Autowired
+    private MatchRollupRepository matchRollupRepository;
+
+    @Autowired
+    private RolledUpMatchRepository rolledUpMatchRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private BallEventRepository ballEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // How long a ledger entry is reserved for the instance applying it before the sweeper may take it over
+    @Value("${matches.rollups.lease:30s}")
+    private Duration lease;
+
+    @Value("${matches.rollups.retry-backoff:10s}")
+    private Duration retryBackoff;
+
+    @Value("${matches.rollups.backfill-concurrency:4}")
+    private int backfillConcurrency;
+
+    private final DateTimeFormatter monthFormat;
+
+    // Months are cut in this zone; matches without a date count in the month they were completed
+    public RollupService(@Value("${matches.rollups.zone:UTC}") ZoneId zone) {
+        this.monthFormat = DateTimeFormatter.ofPattern("yyyy-MM").withZone(zone);
+    }
+
+    // Counts a completed match once, however often it is ended; the first result recorded is the one counted.
+    // Fails only when the ledger entry could not be stored, so ending the match again is the retry. Once it is
+    // stored, a failure to apply it is left to the sweeper.
+    public Mono<Void> record(Match match) {
+        Date now = new Date();
+        RolledUpMatch entry = new RolledUpMatch(match.getId(), match.getWinner(), increments(match, now), now,
+                new Date(now.getTime() + lease.toMillis()));
+        return rolledUpMatchRepository.insert(entry)
+                .flatMap(this::apply)
+                .onErrorResume(DuplicateKeyException.class, error -> Mono.empty());
+    }
+
+    // Adds every increment of a claimed entry and marks it done; a retry of a partly applied entry only adds the
+    // rollups that are still missing it. On failure the entry is rescheduled for the sweeper.
+    public Mono<Void> apply(RolledUpMatch entry) {
+        Date now = new Date();
+        return Flux.fromIterable(entry.getIncrements())
+                .concatMap(increment -> matchRollupRepository.apply(entry.getMatchId(), increment, now))
+                .then(rolledUpMatchRepository.markDone(entry.getMatchId(), entry.getAttempts(), now))
+                // Finishing an abandoned entry counts once whichever instance gets there; only the count differs
+                .doOnNext(done -> count(done ? "done" : "superseded"))
+                .timeout(lease)
+                .onErrorResume(error -> {
+                    count("retry");
+                    System.out.println("Rollups for match " + entry.getMatchId() + " failed on attempt "
+                            + entry.getAttempts() + ", retrying in " + retryBackoff + ": " + error);
+                    return rolledUpMatchRepository.reschedule(entry.getMatchId(), entry.getAttempts(),
+                            new Date(System.currentTimeMillis() + retryBackoff.toMillis()), error.toString());
+                })
+                .then();
+    }
+
+    // Drops a finished match from its rollups' applied lists, which keeps those documents small. Run long after the
+    // entry was done, so no instance is still retrying it.
+    public Mono<Void> close(RolledUpMatch entry) {
+        return Flux.fromIterable(entry.getIncrements())
+                .concatMap(increment -> matchRollupRepository.forget(entry.getMatchId(), increment))
+                .then(rolledUpMatchRepository.markClosed(entry.getMatchId()));
+    }
+
+    // Records every completed match that has no ledger entry yet, e.g. those completed before the rollups existed
+    public Mono<Long> backfill() {
+        return matchRepository.findByStatus("Completed")
+                .flatMap(match -> withInnings(match).flatMap(this::record).thenReturn(match), backfillConcurrency)
+                .count();
+    }
+
+    public Mono<MatchRollup> getVenue(String location) {
+        return get(MatchRollupRepository.VENUES, location);
+    }
+
+    public Mono<MatchRollup> getTeam(String team) {
+        return get(MatchRollupRepository.TEAMS, team);
+    }
+
+    // month is yyyy-MM
+    public Mono<MatchRollup> getMonth(String month) {
+        return get(MatchRollupRepository.MONTHS, month);
+    }
+
+    private Mono<MatchRollup> get(String collection, String id) {
+        // A venue or team without completed matches reads as all zeros rather than not found
+        return matchRollupRepository.find(collection, id).defaultIfEmpty(new MatchRollup(id));
+    }
+
+    // Matches snapshotted before innings scores were kept get them from their recorded balls
+    private Mono<Match> withInnings(Match match) {
+        if (match.getInnings() != null) {
+            return Mono.just(match);
+        }
+        return ballEventRepository.findByMatchIdAndSequenceGreaterThanOrderBySequenceAsc(match.getId(), 0)
+                .collect(TreeMap<Integer, InningsSummary>::new,
+                        (innings, ball) -> innings.computeIfAbsent(ball.getInnings(), InningsSummary::new).add(ball))
+                .map(innings -> {
+                    match.setInnings(new ArrayList<>(innings.values()));
+                    return match;
+                });
+    }
+
+    private List<RollupIncrement> increments(Match match, Date now) {
+        boolean decided = wonByATeam(match);
+        List<RollupIncrement> increments = new ArrayList<>(4);
+        if (match.getLocation() != null) {
+            increments.add(totals(MatchRollupRepository.VENUES, match.getLocation(), match, decided));
+        }
+        Date played = match.getDate() != null ? match.getDate() : now;
+        increments.add(totals(MatchRollupRepository.MONTHS, monthFormat.format(played.toInstant()), match, decided));
+        for (String team : List.of(nullToEmpty(match.getTeam1()), nullToEmpty(match.getTeam2()))) {
+            if (team.isEmpty()) {
+                continue;
+            }
+            RollupIncrement teamTotals = totals(MatchRollupRepository.TEAMS, team, match, decided);
+            if (decided && team.equals(match.getWinner())) {
+                teamTotals.setWins(1);
+            } else if (decided) {
+                teamTotals.setLosses(1);
+            }
+            increments.add(teamTotals);
+        }
+        return increments;
+    }
+
+    private static RollupIncrement totals(String collection, String key, Match match, boolean decided) {
+        RollupIncrement increment = new RollupIncrement(collection, key);
+        increment.setDecided(decided ? 1 : 0);
+        if (match.getInnings() != null) {
+            for (InningsSummary innings : match.getInnings()) {
+                increment.setRuns(increment.getRuns() + innings.getRuns());
+                increment.setWickets(increment.getWickets() + innings.getWickets());
+                increment.setLegalBalls(increment.getLegalBalls() + innings.getLegalBalls());
+            }
+        }
+        return increment;
+    }
+
+    // endMatch gets "-", nothing or free text such as "Tie" when neither team won
+    private static boolean wonByATeam(Match match) {
+        String winner = match.getWinner();
+        return winner != null && (winner.equals(match.getTeam1()) || winner.equals(match.getTeam2()));
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("matches.rollups.entries", "outcome", outcome).increment();
+    }
+}
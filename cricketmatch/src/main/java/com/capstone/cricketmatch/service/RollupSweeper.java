@@ -0,0 +1,90 @@
+package com.capstone.cricketmatch.service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.capstone.cricketmatch.entity.RolledUpMatch;
+import com.capstone.cricketmatch.repository.RolledUpMatchRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Finishes rollup ledger entries that endMatch could not: claims rescheduled and abandoned entries in batches and
+// applies what is still missing, then trims the applied lists of entries done long ago
+@Service
+@ConditionalOnProperty(name = "matches.rollups.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class RollupSweeper {
+
+    @Autowired
+    private RolledUpMatchRepository rolledUpMatchRepository;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Value("${matches.rollups.batch-size:50}")
+    private int batchSize;
+
+    @Value("${matches.rollups.lease:30s}")
+    private Duration lease;
+
+    // Far longer than any lease, so no instance can still be applying an entry whose match id is trimmed
+    @Value("${matches.rollups.close-after:1h}")
+    private Duration closeAfter;
+
+    @Value("${matches.rollups.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    // Safe on every instance at once: a match that already has a ledger entry is skipped
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        rollupService.backfill().subscribe(
+                matches -> System.out.println("Checked " + matches + " completed matches for missing rollups"),
+                error -> System.out.println("Rollup backfill failed: " + error));
+    }
+
+    @Scheduled(fixedDelayString = "${matches.rollups.sweep-interval:10s}")
+    public void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        sweepBatch()
+                .doFinally(signal -> sweeping.set(false))
+                .subscribe(null, error -> System.out.println("Rollup sweep failed: " + error));
+    }
+
+    // Emits how many unfinished entries were applied
+    public Mono<Long> sweepBatch() {
+        Date before = new Date(System.currentTimeMillis() - closeAfter.toMillis());
+        return claimBatch()
+                .concatMap(entry -> rollupService.apply(entry).thenReturn(entry))
+                .count()
+                .flatMap(swept -> rolledUpMatchRepository.findDoneBefore(before, batchSize)
+                        .concatMap(rollupService::close)
+                        .then(Mono.just(swept)));
+    }
+
+    private Flux<RolledUpMatch> claimBatch() {
+        AtomicInteger claimed = new AtomicInteger();
+        return claimNext().expand(entry -> claimed.incrementAndGet() < batchSize ? claimNext() : Mono.empty());
+    }
+
+    private Mono<RolledUpMatch> claimNext() {
+        Date now = new Date();
+        return rolledUpMatchRepository.claimNext(now, new Date(now.getTime() + lease.toMillis()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.capstone.cricketmatch.service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.capstone.cricketmatch.entity.TeamProvisioningTask;
+import com.capstone.cricketmatch.repository.MatchRepository;
+import com.capstone.cricketmatch.repository.TeamProvisioningTaskRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Drains the team provisioning outbox: moves the tasks new matches were inserted with into the outbox, then claims
+// due tasks in batches, calls the team service and records the outcome.
+@Service
+@ConditionalOnProperty(name = "matches.team-outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class TeamProvisioningDispatcher {
+
+    @Autowired
+    private TeamProvisioningTaskRepository taskRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TeamServiceClient teamServiceClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Tasks claimed per run, and how many of them call the team service at once
+    @Value("${matches.team-outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${matches.team-outbox.concurrency:8}")
+    private int concurrency;
+
+    // How long a claimed task is reserved; another instance may take it over once the lease has run out
+    @Value("${matches.team-outbox.lease:30s}")
+    private Duration lease;
+
+    @Value("${matches.team-outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${matches.team-outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${matches.team-outbox.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    // Ticks are skipped while the previous batch is still in flight, so batches never overlap on one instance
+    @Scheduled(fixedDelayString = "${matches.team-outbox.poll-interval:1s}")
+    public void dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        dispatchBatch()
+                .doFinally(signal -> dispatching.set(false))
+                .subscribe(null, error -> System.out.println("Team provisioning dispatch failed: " + error));
+    }
+
+    // Emits how many tasks were provisioned or rescheduled
+    public Mono<Long> dispatchBatch() {
+        return relayNewTasks()
+                .then(claimBatch()
+                        .flatMap(task -> provision(task).thenReturn(task), concurrency)
+                        .count());
+    }
+
+    // The outbox copy is written before the match's own is cleared, so a crash in between only repeats the move.
+    // Emits how many matches were handled.
+    public Mono<Long> relayNewTasks() {
+        return matchRepository.findWithTeamTask(batchSize)
+                .concatMap(match -> taskRepository.insert(match.getTeamTask())
+                        .doOnNext(task -> count("relayed"))
+                        .then()
+                        // Moved before; the match was saved again from a read taken while it still held the task
+                        .onErrorResume(DuplicateKeyException.class, error -> Mono.empty())
+                        .then(matchRepository.clearTeamTask(match.getId())))
+                .count();
+    }
+
+    private Flux<TeamProvisioningTask> claimBatch() {
+        AtomicInteger claimed = new AtomicInteger();
+        // Claims one at a time until nothing is due or the batch is full; each claim is a single atomic findAndModify
+        return claimNext().expand(task -> claimed.incrementAndGet() < batchSize ? claimNext() : Mono.empty());
+    }
+
+    private Mono<TeamProvisioningTask> claimNext() {
+        Date now = new Date();
+        return taskRepository.claimNext(now, new Date(now.getTime() + lease.toMillis()));
+    }
+
+    private Mono<Void> provision(TeamProvisioningTask task) {
+        return teamServiceClient.createTeamsForMatch(task.getMatchId().toString(), task.getTeamNames(), task.getTeamSize())
+                .then(taskRepository.markDone(task.getMatchId(), task.getAttempts(), new Date()))
+                // Another instance took the task over after this lease ran out; it sent the same match id
+                .doOnNext(done -> count(done ? "done" : "superseded"))
+                .then()
+                .onErrorResume(error -> handleFailure(task, error));
+    }
+
+    private Mono<Void> handleFailure(TeamProvisioningTask task, Throwable error) {
+        if (task.getAttempts() >= maxAttempts) {
+            System.out.println("Giving up on teams for match " + task.getMatchId() + " after "
+                    + task.getAttempts() + " attempts: " + error);
+            count("failed");
+            return taskRepository.markFailed(task.getMatchId(), task.getAttempts(), error.toString()).then();
+        }
+        count("retry");
+        return taskRepository.reschedule(task.getMatchId(), task.getAttempts(),
+                new Date(System.currentTimeMillis() + backoff(task.getAttempts())), error.toString()).then();
+    }
+
+    // Exponential from initialBackoff, capped at maxBackoff
+    private long backoff(int attempts) {
+        long delay = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        return Math.min(delay, maxBackoff.toMillis());
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("matches.team-outbox.tasks", "outcome", outcome).increment();
+    }
+}
@@ -1,22 +1,150 @@
 package com.capstone.cricketmatch.service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.capstone.cricketmatch.dto.TeamCreationRequest;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
 
+// Calls to the team service go through a bounded connection pool, per-attempt timeouts, an optional hedge,
+// a circuit breaker and jittered retries, so a slow team service cannot pile up match creation requests.
+// Latency is timed by the WebClient observation (http.client.requests), breaker state by resilience4j.circuitbreaker.*
 @Service
 public class TeamServiceClient {
 
-    private final WebClient webClient;
+    // Gateway and throttling answers that say nothing about whether the teams exist yet
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
 
-    public TeamServiceClient(@Value("${team.service.url}") String teamServiceUrl, WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl(teamServiceUrl).build();
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final String teamServiceUrl;
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+
+    private WebClient webClient;
+    private CircuitBreaker circuitBreaker;
+
+    @Value("${team.service.pool.max-connections:50}")
+    private int maxConnections;
+
+    // Requests allowed to wait for a pooled connection; beyond this they fail fast instead of queueing
+    @Value("${team.service.pool.pending-acquire-max-count:100}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${team.service.pool.pending-acquire-timeout:2s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${team.service.pool.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${team.service.connect-timeout:1s}")
+    private Duration connectTimeout;
+
+    @Value("${team.service.response-timeout:2s}")
+    private Duration responseTimeout;
+
+    // Retries after the first attempt. Every attempt, hedges included, carries the match id as its Idempotency-Key,
+    // so the team service can answer a repeat without creating the teams twice
+    @Value("${team.service.retry.max-attempts:2}")
+    private int retryMaxAttempts;
+
+    @Value("${team.service.retry.min-backoff:100ms}")
+    private Duration retryMinBackoff;
+
+    @Value("${team.service.retry.max-backoff:1s}")
+    private Duration retryMaxBackoff;
+
+    // Share of each backoff that is randomized, so instances recovering together do not retry in lockstep
+    @Value("${team.service.retry.jitter:0.5}")
+    private double retryJitter;
+
+    @Value("${team.service.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    // Kept below the response timeout, so a call that is slow but still answers counts before one that times out
+    @Value("${team.service.circuit-breaker.slow-call-duration-threshold:1500ms}")
+    private Duration slowCallDurationThreshold;
+
+    @Value("${team.service.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${team.service.circuit-breaker.minimum-number-of-calls:10}")
+    private int minimumNumberOfCalls;
+
+    @Value("${team.service.circuit-breaker.wait-duration-in-open-state:10s}")
+    private Duration waitDurationInOpenState;
+
+    @Value("${team.service.circuit-breaker.permitted-calls-in-half-open-state:3}")
+    private int permittedCallsInHalfOpenState;
+
+    // A second, identical request goes out when the first has not answered within the delay; the first answer wins
+    @Value("${team.service.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${team.service.hedge.delay:500ms}")
+    private Duration hedgeDelay;
+
+    public TeamServiceClient(@Value("${team.service.url}") String teamServiceUrl, WebClient.Builder webClientBuilder,
+                             MeterRegistry meterRegistry) {
+        this.teamServiceUrl = teamServiceUrl;
+        this.webClientBuilder = webClientBuilder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("team-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        // The auto-configured builder keeps the http.client.requests observation
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(teamServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                // Calls slower than the threshold count against the same budget as failed ones
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDurationThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .recordException(TeamServiceClient::isServiceFailure)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        this.circuitBreaker = registry.circuitBreaker("team-service");
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                System.out.println("Team service circuit breaker: " + event.getStateTransition()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
     }
 
     public Mono<Void> createTeamsForMatch(String matchId, List<String> teamNames, int teamSize) {
@@ -25,11 +153,40 @@ public class TeamServiceClient {
         request.setTeamNames(teamNames);
         request.setTeamSize(teamSize);
 
-        return webClient.post()
+        Mono<Void> attempt = webClient.post()
                 .uri("/api/teams/create-for-match")
+                .header(IDEMPOTENCY_KEY, matchId)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(Void.class);
+                .toBodilessEntity()
+                .then();
+        if (hedgeEnabled) {
+            attempt = Mono.firstWithSignal(attempt, attempt.delaySubscription(hedgeDelay));
+        }
+
+        return attempt
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .retryWhen(Retry.backoff(retryMaxAttempts, retryMinBackoff)
+                        .maxBackoff(retryMaxBackoff)
+                        .jitter(retryJitter)
+                        .filter(TeamServiceClient::isRetryable)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
     }
-}
 
+    // No connection, a timeout, or an answer that says nothing about the request; an open breaker is not retried
+    static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientRequestException) {
+            return true;
+        }
+        return error instanceof WebClientResponseException response
+                && RETRYABLE_STATUSES.contains(response.getStatusCode().value());
+    }
+
+    // Client errors are the caller's fault and must not open the breaker
+    static boolean isServiceFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return true;
+    }
+}
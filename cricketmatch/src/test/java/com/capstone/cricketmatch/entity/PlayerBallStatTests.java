@@ -0,0 +1,101 @@
+package com.capstone.cricketmatch.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PlayerBallStatTests {
+
+    @Test
+    void aWideIsNotAFacedBallAndItsExtrasGoToTheBowler() {
+        BallEvent wide = ball(0, 1, BallEvent.WIDE);
+
+        PlayerBallStat batting = PlayerBallStat.batting(wide);
+        assertThat(batting.getRuns()).isZero();
+        assertThat(batting.getBalls()).isZero();
+
+        PlayerBallStat bowling = PlayerBallStat.bowling(wide);
+        assertThat(bowling.getRuns()).isEqualTo(1);
+        assertThat(bowling.getBalls()).isZero();
+    }
+
+    @Test
+    void aNoBallIsFacedButNotBowled() {
+        BallEvent noBall = ball(4, 1, BallEvent.NO_BALL);
+
+        assertThat(PlayerBallStat.batting(noBall).getRuns()).isEqualTo(4);
+        assertThat(PlayerBallStat.batting(noBall).getBalls()).isEqualTo(1);
+        assertThat(PlayerBallStat.bowling(noBall).getRuns()).isEqualTo(5);
+        assertThat(PlayerBallStat.bowling(noBall).getBalls()).isZero();
+    }
+
+    @Test
+    void byesAndLegByesAreNotConcededByTheBowler() {
+        for (String kind : new String[] { BallEvent.BYE, BallEvent.LEG_BYE }) {
+            BallEvent byes = ball(0, 4, kind);
+
+            assertThat(PlayerBallStat.batting(byes).getRuns()).isZero();
+            assertThat(PlayerBallStat.batting(byes).getBalls()).isEqualTo(1);
+            assertThat(PlayerBallStat.bowling(byes).getRuns()).isZero();
+            assertThat(PlayerBallStat.bowling(byes).getBalls()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void aRunOutIsTheDismissedBattersWicketAndNotTheBowlers() {
+        BallEvent runOut = ball(1, 0, null);
+        runOut.setWicket(true);
+        runOut.setWicketKind(BallEvent.RUN_OUT);
+        runOut.setDismissedId("non-striker");
+
+        // The striker was not out
+        assertThat(PlayerBallStat.batting(runOut).getWickets()).isZero();
+        assertThat(PlayerBallStat.bowling(runOut).getWickets()).isZero();
+
+        runOut.setDismissedId("bat");
+        assertThat(PlayerBallStat.batting(runOut).getWickets()).isEqualTo(1);
+    }
+
+    @Test
+    void aBowledWicketCountsForBothSides() {
+        BallEvent bowled = ball(0, 0, null);
+        bowled.setWicket(true);
+        bowled.setWicketKind("BOWLED");
+
+        assertThat(PlayerBallStat.batting(bowled).getWickets()).isEqualTo(1);
+        assertThat(PlayerBallStat.bowling(bowled).getWickets()).isEqualTo(1);
+        assertThat(PlayerBallStat.batting(bowled).getSeries().getPlayerId()).isEqualTo("bat");
+        assertThat(PlayerBallStat.bowling(bowled).getSeries().getPlayerId()).isEqualTo("bowl");
+    }
+
+    @Test
+    void inningsCountAllRunsAndWicketsButOnlyLegalBalls() {
+        InningsSummary innings = new InningsSummary(1);
+
+        innings.add(ball(4, 0, null));
+        innings.add(ball(0, 1, BallEvent.WIDE));
+        innings.add(ball(2, 1, BallEvent.NO_BALL));
+        innings.add(ball(0, 2, BallEvent.LEG_BYE));
+        BallEvent runOut = ball(1, 0, null);
+        runOut.setWicket(true);
+        runOut.setWicketKind(BallEvent.RUN_OUT);
+        innings.add(runOut);
+
+        assertThat(innings.getRuns()).isEqualTo(11);
+        assertThat(innings.getWickets()).isEqualTo(1);
+        assertThat(innings.getLegalBalls()).isEqualTo(3);
+    }
+
+    private static BallEvent ball(int runs, int extras, String extraType) {
+        BallEvent ball = new BallEvent();
+        ball.setMatchId(1L);
+        ball.setSequence(1);
+        ball.setInnings(1);
+        ball.setBatterId("bat");
+        ball.setBowlerId("bowl");
+        ball.setRuns(runs);
+        ball.setExtras(extras);
+        ball.setExtraType(extraType);
+        return ball;
+    }
+}
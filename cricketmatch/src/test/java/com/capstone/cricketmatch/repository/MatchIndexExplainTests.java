@@ -0,0 +1,118 @@
+package com.capstone.cricketmatch.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.capstone.cricketmatch.config.MongoIndexConfig;
+import com.capstone.cricketmatch.entity.Match;
+import com.mongodb.ExplainVerbosity;
+
+import reactor.core.publisher.Mono;
+
+// Needs Docker; skipped where it is not available
+@DataMongoTest
+@Import(MongoIndexConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class MatchIndexExplainTests {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+
+    @BeforeEach
+    void setUp() {
+        matchRepository.deleteAll().block();
+        mongoIndexConfig.ensureIndexes().block();
+
+        List<Match> matches = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            Match match = new Match(id, "Team A" + id, "Team B" + id, new Date(1_700_000_000_000L + id * 60_000),
+                    id % 2 == 0 ? "Chennai" : "Mumbai", 11);
+            match.setStatus(id % 3 == 0 ? "Completed" : "Upcoming");
+            match.setCode("M" + id);
+            matches.add(match);
+        }
+        matchRepository.saveAll(matches).blockLast();
+    }
+
+    @Test
+    void firstStatusPageIsServedFromStatusDateIndex() {
+        Document plan = explain(MatchRepositoryCustomImpl.pageQuery("status", "Upcoming", null, null, 20));
+
+        assertUsesIndexWithoutSort(plan, "status_date");
+    }
+
+    @Test
+    void deepStatusPageSeeksInsteadOfSkipping() {
+        Query query = MatchRepositoryCustomImpl.pageQuery("status", "Upcoming",
+                new Date(1_700_000_000_000L + 150 * 60_000), 150L, 20);
+        Document plan = explain(query);
+
+        assertUsesIndexWithoutSort(plan, "status_date");
+        Document stats = plan.get("executionStats", Document.class);
+        // A seek reads roughly one page of keys, however deep the page is
+        assertThat(stats.getInteger("totalKeysExamined")).isLessThanOrEqualTo(60);
+        assertThat(matchRepository.findPage("status", "Upcoming",
+                new Date(1_700_000_000_000L + 150 * 60_000), 150L, 20).collectList().block())
+                .allSatisfy(match -> assertThat(match.getId()).isGreaterThan(150L));
+    }
+
+    @Test
+    void locationPageIsServedFromLocationDateIndex() {
+        Document plan = explain(MatchRepositoryCustomImpl.pageQuery("location", "Chennai",
+                new Date(1_700_000_000_000L + 100 * 60_000), 100L, 20));
+
+        assertUsesIndexWithoutSort(plan, "location_date");
+    }
+
+    @Test
+    void codeLookupUsesUniqueCodeIndex() {
+        String code = matchRepository.findById(42L).block().getCode();
+        Document plan = explain(Query.query(Criteria.where("code").is(code)));
+
+        assertUsesIndexWithoutSort(plan, "code_unique");
+    }
+
+    private Document explain(Query query) {
+        return mongoTemplate.getCollection("matches")
+                .flatMap(collection -> Mono.from(collection.find(query.getQueryObject())
+                        .sort(query.getSortObject())
+                        .limit(query.getLimit())
+                        .explain(ExplainVerbosity.EXECUTION_STATS)))
+                .block();
+    }
+
+    private static void assertUsesIndexWithoutSort(Document plan, String indexName) {
+        String winningPlan = plan.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+        assertThat(winningPlan)
+                .contains("\"indexName\": \"" + indexName + "\"")
+                .doesNotContain("COLLSCAN")
+                .doesNotContain("\"stage\": \"SORT\"");
+    }
+}
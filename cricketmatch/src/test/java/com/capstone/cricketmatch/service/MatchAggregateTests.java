@@ -0,0 +1,141 @@
+package com.capstone.cricketmatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.capstone.cricketmatch.entity.BallEvent;
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.PlayerStats;
+
+class MatchAggregateTests {
+
+    @Test
+    void foldsRunsToTheBatterAndWicketsToTheBowler() {
+        MatchAggregate aggregate = new MatchAggregate(match());
+
+        aggregate.append(ball("bat", "bowl", 4));
+        BallEvent wide = ball("bat", "bowl", 0);
+        wide.setExtras(1);
+        wide.setExtraType(BallEvent.WIDE);
+        aggregate.append(wide);
+        aggregate.append(wicket("bat", "bowl", "BOWLED"));
+        aggregate.append(wicket("bat2", "bowl", BallEvent.RUN_OUT));
+
+        List<PlayerStats> players = aggregate.view().getPlayerStats();
+        assertThat(players).extracting(PlayerStats::getPlayerId).containsExactly("bat", "bowl");
+        assertThat(players.get(0).getRunsScored()).isEqualTo(4);
+        // Run outs are not the bowler's
+        assertThat(players.get(1).getWicketsTaken()).isEqualTo(1);
+        assertThat(aggregate.view().getSequence()).isEqualTo(4);
+    }
+
+    @Test
+    void replaySkipsBallsTheSnapshotAlreadyHas() {
+        Match match = match();
+        match.setPlayerStats(List.of(new PlayerStats("bat", "bat", 10, 0)));
+        match.setSnapshotSequence(3);
+        MatchAggregate aggregate = new MatchAggregate(match);
+
+        BallEvent old = ball("bat", "bowl", 6);
+        old.setSequence(3);
+        aggregate.apply(old);
+        BallEvent next = ball("bat", "bowl", 2);
+        next.setSequence(4);
+        aggregate.apply(next);
+
+        assertThat(aggregate.view().getPlayerStats().get(0).getRunsScored()).isEqualTo(12);
+        assertThat(aggregate.view().getSequence()).isEqualTo(4);
+    }
+
+    @Test
+    void readsDoNotPostponeTheNextSnapshot() {
+        MatchAggregate aggregate = new MatchAggregate(match());
+        for (int i = 0; i < 5; i++) {
+            aggregate.append(ball("bat", "bowl", 1));
+            aggregate.view();
+            assertThat(aggregate.snapshotIfDue(6)).isNull();
+        }
+        aggregate.append(ball("bat", "bowl", 1));
+
+        MatchAggregate.Snapshot due = aggregate.snapshotIfDue(6);
+        assertThat(due).isNotNull();
+        assertThat(due.getSequence()).isEqualTo(6);
+        // One write at a time
+        aggregate.append(ball("bat", "bowl", 1));
+        assertThat(aggregate.snapshotIfDue(6)).isNull();
+
+        aggregate.snapshotSaved(due.getSequence());
+        for (int i = 0; i < 4; i++) {
+            aggregate.append(ball("bat", "bowl", 1));
+        }
+        assertThat(aggregate.snapshotIfDue(6)).isNull();
+        aggregate.append(ball("bat", "bowl", 1));
+        assertThat(aggregate.snapshotIfDue(6).getSequence()).isEqualTo(12);
+    }
+
+    @Test
+    void aFailedSnapshotIsRetriedWithTheNextBall() {
+        MatchAggregate aggregate = new MatchAggregate(match());
+        for (int i = 0; i < 6; i++) {
+            aggregate.append(ball("bat", "bowl", 1));
+        }
+        assertThat(aggregate.snapshotIfDue(6)).isNotNull();
+        aggregate.snapshotFailed();
+
+        aggregate.append(ball("bat", "bowl", 1));
+
+        assertThat(aggregate.snapshotIfDue(6).getSequence()).isEqualTo(7);
+    }
+
+    @Test
+    void aSnapshotWithoutInningsReplaysTheInningsFromTheFirstBall() {
+        // Stored before innings were kept: the players are as of ball 2, the innings scores are missing
+        Match match = match();
+        match.setPlayerStats(List.of(new PlayerStats("bat", "bat", 10, 0)));
+        match.setSnapshotSequence(2);
+        MatchAggregate aggregate = new MatchAggregate(match);
+        assertThat(aggregate.replayFrom()).isZero();
+
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            BallEvent ball = ball("bat", "bowl", 4);
+            ball.setSequence(sequence);
+            aggregate.apply(ball);
+        }
+
+        MatchAggregate.Snapshot view = aggregate.view();
+        assertThat(view.getInnings().get(0).getRuns()).isEqualTo(12);
+        assertThat(view.getInnings().get(0).getLegalBalls()).isEqualTo(3);
+        assertThat(view.getPlayerStats().get(0).getRunsScored()).isEqualTo(14);
+        assertThat(aggregate.replayFrom()).isEqualTo(3);
+    }
+
+    private static Match match() {
+        Match match = new Match(1L, "A", "B", new Date(), "Chennai", 11);
+        match.setCode("M1");
+        match.setStatus("Ongoing");
+        return match;
+    }
+
+    private static BallEvent ball(String batterId, String bowlerId, int runs) {
+        BallEvent ball = new BallEvent();
+        ball.setInnings(1);
+        ball.setBatterId(batterId);
+        ball.setBatterName(batterId);
+        ball.setBowlerId(bowlerId);
+        ball.setBowlerName(bowlerId);
+        ball.setRuns(runs);
+        return ball;
+    }
+
+    private static BallEvent wicket(String batterId, String bowlerId, String kind) {
+        BallEvent ball = ball(batterId, bowlerId, 0);
+        ball.setWicket(true);
+        ball.setWicketKind(kind);
+        ball.setDismissedId(batterId);
+        return ball;
+    }
+}
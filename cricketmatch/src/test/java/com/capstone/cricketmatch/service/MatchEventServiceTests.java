@@ -0,0 +1,135 @@
+package com.capstone.cricketmatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.capstone.cricketmatch.entity.BallEvent;
+import com.capstone.cricketmatch.entity.PlayerBallStat;
+import com.capstone.cricketmatch.repository.BallEventRepository;
+import com.capstone.cricketmatch.repository.PlayerBallStatRepository;
+import com.capstone.cricketmatch.repository.PlayerBallStatRepositoryCustomImpl;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Runs against an in-memory Mongo; it stores the series in a plain collection, which the reads treat the same
+class MatchEventServiceTests {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private MongoServer server;
+    private MongoClient client;
+    private BallEventRepository ballEventRepository;
+    private PlayerBallStatRepository playerBallStatRepository;
+    private MatchEventService matchEventService;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create("mongodb://" + server.bindAndGetConnectionString().split("//")[1]);
+        ReactiveMongoTemplate mongoTemplate = new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(client, "cricket"));
+        ReactiveMongoRepositoryFactory factory = new ReactiveMongoRepositoryFactory(mongoTemplate);
+        ballEventRepository = factory.getRepository(BallEventRepository.class);
+        playerBallStatRepository = factory.getRepository(PlayerBallStatRepository.class,
+                RepositoryFragments.just(new PlayerBallStatRepositoryCustomImpl(mongoTemplate)));
+
+        matchEventService = new MatchEventService(Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(matchEventService, "ballEventRepository", ballEventRepository);
+        ReflectionTestUtils.setField(matchEventService, "playerBallStatRepository", playerBallStatRepository);
+        ReflectionTestUtils.setField(matchEventService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(matchEventService, "seriesRepairAfter", Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void theSeriesRangeIncludesFromAndExcludesTo() {
+        List<BallEvent> balls = balls(5);
+        List<PlayerBallStat> points = new ArrayList<>();
+        balls.forEach(ball -> points.add(PlayerBallStat.batting(ball)));
+        playerBallStatRepository.insert(points).blockLast();
+
+        assertThat(sequences(matchEventService.getPlayerSeries(1L, "bat", at(2), at(4)).collectList().block()))
+                .containsExactly(2L, 3L);
+        assertThat(sequences(matchEventService.getPlayerSeries(1L, "bat", at(4), null).collectList().block()))
+                .containsExactly(4L, 5L);
+        assertThat(sequences(matchEventService.getPlayerSeries(1L, "bat", null, at(2)).collectList().block()))
+                .containsExactly(1L);
+        assertThat(matchEventService.getPlayerSeries(1L, "bat", null, null).count().block()).isEqualTo(5);
+        assertThat(matchEventService.getPlayerSeries(1L, "bowl", null, null).count().block()).isZero();
+    }
+
+    @Test
+    void theRepairAddsOnlyTheMissingPoints() {
+        List<BallEvent> balls = balls(3);
+        ballEventRepository.saveAll(balls).blockLast();
+        // Ball 1 was written in full, ball 2 lost its bowling point and ball 3 lost both
+        playerBallStatRepository.insert(List.of(PlayerBallStat.batting(balls.get(0)), PlayerBallStat.bowling(balls.get(0)),
+                PlayerBallStat.batting(balls.get(1)))).blockLast();
+
+        assertThat(matchEventService.repairSeries(1L, new Date()).block()).isEqualTo(3);
+        assertThat(matchEventService.repairSeries(1L, new Date()).block()).isZero();
+        assertThat(playerBallStatRepository.findRecorded(1L).count().block()).isEqualTo(6);
+    }
+
+    @Test
+    void theScheduledRepairLeavesBallsThatMayStillBeWriting() {
+        List<BallEvent> balls = balls(2);
+        balls.get(1).setRecordedAt(new Date());
+        ballEventRepository.saveAll(balls).blockLast();
+
+        assertThat(matchEventService.repairSeries(1L, new Date(System.currentTimeMillis() - 60_000)).block())
+                .isEqualTo(2);
+        assertThat(playerBallStatRepository.findRecorded(1L).count().block()).isEqualTo(2);
+        // The recent ball is retried on the next run
+        @SuppressWarnings("unchecked")
+        Set<Long> queued = (Set<Long>) ReflectionTestUtils.getField(matchEventService, "seriesToRepair");
+        assertThat(queued).containsExactly(1L);
+    }
+
+    private static List<BallEvent> balls(int count) {
+        List<BallEvent> balls = new ArrayList<>();
+        for (int sequence = 1; sequence <= count; sequence++) {
+            BallEvent ball = new BallEvent();
+            ball.setId((long) sequence);
+            ball.setMatchId(1L);
+            ball.setSequence(sequence);
+            ball.setInnings(1);
+            ball.setBatterId("bat");
+            ball.setBowlerId("bowl");
+            ball.setRuns(1);
+            ball.setRecordedAt(at(sequence));
+            balls.add(ball);
+        }
+        return balls;
+    }
+
+    private static Date at(int sequence) {
+        return new Date(START + sequence * 1000L);
+    }
+
+    private static List<Long> sequences(List<PlayerBallStat> points) {
+        return points.stream().map(PlayerBallStat::getSequence).toList();
+    }
+}
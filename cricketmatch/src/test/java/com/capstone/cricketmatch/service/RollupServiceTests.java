@@ -0,0 +1,258 @@
+package com.capstone.cricketmatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.capstone.cricketmatch.entity.BallEvent;
+import com.capstone.cricketmatch.entity.InningsSummary;
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.MatchRollup;
+import com.capstone.cricketmatch.entity.RollupIncrement;
+import com.capstone.cricketmatch.entity.RolledUpMatch;
+import com.capstone.cricketmatch.repository.BallEventRepository;
+import com.capstone.cricketmatch.repository.MatchRepository;
+import com.capstone.cricketmatch.repository.MatchRepositoryCustomImpl;
+import com.capstone.cricketmatch.repository.MatchRollupRepository;
+import com.capstone.cricketmatch.repository.RolledUpMatchRepository;
+import com.capstone.cricketmatch.repository.RolledUpMatchRepositoryCustomImpl;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.client.result.UpdateResult;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Runs against an in-memory Mongo, so the once-only accounting is checked without Docker
+class RollupServiceTests {
+
+    private MongoServer server;
+    private MongoClient client;
+    private ReactiveMongoTemplate mongoTemplate;
+    private FlakyRollupRepository rollups;
+    private RolledUpMatchRepository ledger;
+    private MatchRepository matchRepository;
+    private BallEventRepository ballEventRepository;
+    private RollupService rollupService;
+    private RollupSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create("mongodb://" + server.bindAndGetConnectionString().split("//")[1]);
+        mongoTemplate = new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(client, "cricket"));
+        ReactiveMongoRepositoryFactory factory = new ReactiveMongoRepositoryFactory(mongoTemplate);
+        ledger = factory.getRepository(RolledUpMatchRepository.class,
+                RepositoryFragments.just(new RolledUpMatchRepositoryCustomImpl(mongoTemplate)));
+        matchRepository = factory.getRepository(MatchRepository.class,
+                RepositoryFragments.just(new MatchRepositoryCustomImpl(mongoTemplate)));
+        ballEventRepository = factory.getRepository(BallEventRepository.class);
+        rollups = new FlakyRollupRepository(mongoTemplate);
+
+        rollupService = new RollupService(ZoneId.of("UTC"));
+        ReflectionTestUtils.setField(rollupService, "matchRollupRepository", rollups);
+        ReflectionTestUtils.setField(rollupService, "rolledUpMatchRepository", ledger);
+        ReflectionTestUtils.setField(rollupService, "matchRepository", matchRepository);
+        ReflectionTestUtils.setField(rollupService, "ballEventRepository", ballEventRepository);
+        ReflectionTestUtils.setField(rollupService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rollupService, "lease", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(rollupService, "retryBackoff", Duration.ZERO);
+        ReflectionTestUtils.setField(rollupService, "backfillConcurrency", 4);
+
+        sweeper = new RollupSweeper();
+        ReflectionTestUtils.setField(sweeper, "rolledUpMatchRepository", ledger);
+        ReflectionTestUtils.setField(sweeper, "rollupService", rollupService);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 50);
+        ReflectionTestUtils.setField(sweeper, "lease", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(sweeper, "closeAfter", Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void recordingTheSameMatchTwiceCountsItOnce() {
+        Match match = completed(1L, "India", 120);
+
+        rollupService.record(match).block();
+        rollupService.record(match).block();
+        Flux.merge(rollupService.record(match), rollupService.record(match)).blockLast();
+
+        assertCountedOnce("India", 120);
+    }
+
+    @Test
+    void theSweeperFinishesAHalfAppliedMatchWithoutCountingItTwice() {
+        Match match = completed(2L, "India", 90);
+        // Venue, month and the first team are written, then the second team's write fails
+        rollups.failOnCall(4);
+
+        rollupService.record(match).block();
+
+        assertThat(team("India").getMatches()).isEqualTo(1);
+        assertThat(team("Australia").getMatches()).isZero();
+        assertThat(ledger.findById(2L).block().getStatus()).isEqualTo(RolledUpMatch.PENDING);
+
+        assertThat(sweeper.sweepBatch().block()).isEqualTo(1);
+        assertThat(ledger.findById(2L).block().getStatus()).isEqualTo(RolledUpMatch.DONE);
+        assertCountedOnce("India", 90);
+
+        // Once closed the match id leaves the rollups; the ledger entry still keeps it from being counted again
+        ReflectionTestUtils.setField(sweeper, "closeAfter", Duration.ofMillis(-1));
+        sweeper.sweepBatch().block();
+        assertThat(ledger.findById(2L).block().getStatus()).isEqualTo(RolledUpMatch.CLOSED);
+        Document venue = mongoTemplate.findById("Chennai", Document.class, MatchRollupRepository.VENUES).block();
+        assertThat(venue.getList("appliedMatches", Long.class)).isEmpty();
+        rollupService.record(match).block();
+        assertCountedOnce("India", 90);
+    }
+
+    @Test
+    void aLostLeaseCannotCompleteTheEntry() {
+        rollupService.record(completed(3L, "India", 50)).block();
+        RolledUpMatch entry = ledger.findById(3L).block();
+
+        // A sweeper took the entry over, so the first claim is stale
+        assertThat(ledger.markDone(3L, entry.getAttempts() + 1, new Date()).block()).isFalse();
+        assertThat(ledger.reschedule(3L, entry.getAttempts() - 1, new Date(), "late").block()).isFalse();
+        assertThat(ledger.findById(3L).block().getStatus()).isEqualTo(RolledUpMatch.DONE);
+    }
+
+    @Test
+    void backfillCountsCompletedMatchesThatHaveNoEntry() {
+        Match recorded = completed(4L, "India", 100);
+        matchRepository.save(recorded).block();
+        rollupService.record(recorded).block();
+
+        // Snapshotted before innings were kept; its runs come from the recorded balls
+        Match older = completed(5L, "Australia", 0);
+        older.setInnings(null);
+        matchRepository.save(older).block();
+        ballEventRepository.saveAll(List.of(ball(5L, 1, 4), ball(5L, 2, 6))).blockLast();
+
+        Match upcoming = new Match(6L, "India", "Australia", date(), "Chennai", 11);
+        upcoming.setStatus("Upcoming");
+        matchRepository.save(upcoming).block();
+
+        assertThat(rollupService.backfill().block()).isEqualTo(2);
+
+        MatchRollup venue = rollups.find(MatchRollupRepository.VENUES, "Chennai").block();
+        assertThat(venue.getMatches()).isEqualTo(2);
+        assertThat(venue.getRuns()).isEqualTo(110);
+        assertThat(team("India").getWins()).isEqualTo(1);
+        assertThat(team("Australia").getWins()).isEqualTo(1);
+    }
+
+    @Test
+    void aMatchThatLosesTheRaceToCreateARollupIsStillCounted() {
+        AtomicBoolean raced = new AtomicBoolean();
+        RollupIncrement first = new RollupIncrement(MatchRollupRepository.VENUES, "Pune");
+        first.setRuns(100);
+        ReactiveMongoTemplate racingTemplate = new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(client, "cricket")) {
+            @Override
+            public Mono<UpdateResult> upsert(Query query, UpdateDefinition update, Class<?> entityClass, String collectionName) {
+                if (!raced.compareAndSet(false, true)) {
+                    return super.upsert(query, update, entityClass, collectionName);
+                }
+                // Another match inserts the rollup between this upsert's match and its insert
+                return rollups.apply(7L, first, date()).then(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+            }
+        };
+        RollupIncrement second = new RollupIncrement(MatchRollupRepository.VENUES, "Pune");
+        second.setRuns(80);
+
+        new MatchRollupRepository(racingTemplate).apply(8L, second, date()).block();
+        new MatchRollupRepository(racingTemplate).apply(8L, second, date()).block();
+
+        MatchRollup venue = rollups.find(MatchRollupRepository.VENUES, "Pune").block();
+        assertThat(venue.getMatches()).isEqualTo(2);
+        assertThat(venue.getRuns()).isEqualTo(180);
+    }
+
+    private void assertCountedOnce(String winner, long runs) {
+        MatchRollup venue = rollups.find(MatchRollupRepository.VENUES, "Chennai").block();
+        assertThat(venue.getMatches()).isEqualTo(1);
+        assertThat(venue.getRuns()).isEqualTo(runs);
+        assertThat(rollups.find(MatchRollupRepository.MONTHS, "2023-11").block().getMatches()).isEqualTo(1);
+        String loser = winner.equals("India") ? "Australia" : "India";
+        assertThat(team(winner).getWins()).isEqualTo(1);
+        assertThat(team(loser).getLosses()).isEqualTo(1);
+        assertThat(team(loser).getMatches()).isEqualTo(1);
+    }
+
+    private MatchRollup team(String name) {
+        return rollups.find(MatchRollupRepository.TEAMS, name).defaultIfEmpty(new MatchRollup(name)).block();
+    }
+
+    private static Match completed(Long id, String winner, int runs) {
+        Match match = new Match(id, "India", "Australia", date(), "Chennai", 11);
+        match.setStatus("Completed");
+        match.setWinner(winner);
+        InningsSummary innings = new InningsSummary(1);
+        innings.setRuns(runs);
+        match.setInnings(List.of(innings));
+        return match;
+    }
+
+    private static BallEvent ball(Long matchId, long sequence, int runs) {
+        BallEvent ball = new BallEvent();
+        ball.setId(matchId * 1000 + sequence);
+        ball.setMatchId(matchId);
+        ball.setSequence(sequence);
+        ball.setInnings(1);
+        ball.setRuns(runs);
+        ball.setBatterId("bat");
+        ball.setBowlerId("bowl");
+        return ball;
+    }
+
+    private static Date date() {
+        return new Date(1_700_000_000_000L);
+    }
+
+    // Fails one chosen rollup write, as a timed-out or dropped update would
+    private static class FlakyRollupRepository extends MatchRollupRepository {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile int failingCall;
+
+        FlakyRollupRepository(ReactiveMongoTemplate mongoTemplate) {
+            super(mongoTemplate);
+        }
+
+        void failOnCall(int call) {
+            failingCall = call;
+        }
+
+        @Override
+        public Mono<Void> apply(Long matchId, RollupIncrement increment, Date now) {
+            if (calls.incrementAndGet() == failingCall) {
+                return Mono.error(new RuntimeException("Mongo down"));
+            }
+            return super.apply(matchId, increment, now);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.capstone.cricketmatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.capstone.cricketmatch.entity.Match;
+import com.capstone.cricketmatch.entity.TeamProvisioningTask;
+import com.capstone.cricketmatch.repository.MatchRepository;
+import com.capstone.cricketmatch.repository.MatchRepositoryCustomImpl;
+import com.capstone.cricketmatch.repository.TeamProvisioningTaskRepository;
+import com.capstone.cricketmatch.repository.TeamProvisioningTaskRepositoryCustomImpl;
+import com.capstone.ids.SnowflakeIdAllocator;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+// Runs against an in-memory Mongo with a team service stand-in
+class TeamProvisioningDispatcherTests {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MatchRepository matchRepository;
+    private TeamProvisioningTaskRepository taskRepository;
+    private StubTeamService teamService;
+    private TeamProvisioningDispatcher dispatcher;
+    private MatchService matchService;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create("mongodb://" + server.bindAndGetConnectionString().split("//")[1]);
+        ReactiveMongoTemplate mongoTemplate = new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(client, "cricket"));
+        ReactiveMongoRepositoryFactory factory = new ReactiveMongoRepositoryFactory(mongoTemplate);
+        matchRepository = factory.getRepository(MatchRepository.class,
+                RepositoryFragments.just(new MatchRepositoryCustomImpl(mongoTemplate)));
+        taskRepository = factory.getRepository(TeamProvisioningTaskRepository.class,
+                RepositoryFragments.just(new TeamProvisioningTaskRepositoryCustomImpl(mongoTemplate)));
+        teamService = new StubTeamService();
+
+        dispatcher = new TeamProvisioningDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(dispatcher, "matchRepository", matchRepository);
+        ReflectionTestUtils.setField(dispatcher, "teamServiceClient", teamService);
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "concurrency", 8);
+        ReflectionTestUtils.setField(dispatcher, "lease", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ZERO);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ZERO);
+
+        matchService = new MatchService();
+        ReflectionTestUtils.setField(matchService, "matchRepository", matchRepository);
+        ReflectionTestUtils.setField(matchService, "idAllocator", new SnowflakeIdAllocator(1));
+        ReflectionTestUtils.setField(matchService, "matchCache",
+                new MatchCache(100, Duration.ofMinutes(1), null, new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void aNewMatchCarriesItsTaskUntilTheDispatcherMovesAndProvisionsIt() {
+        Match match = matchService.createMatch(match(null)).block();
+
+        assertThat(taskRepository.count().block()).isZero();
+        assertThat(matchRepository.findById(match.getId()).block().getTeamTask().getTeamNames())
+                .containsExactly("India", "Australia");
+
+        assertThat(dispatcher.dispatchBatch().block()).isEqualTo(1);
+        assertThat(dispatcher.dispatchBatch().block()).isZero();
+
+        assertThat(teamService.calls).hasValue(1);
+        assertThat(taskRepository.findById(match.getId()).block().getStatus()).isEqualTo(TeamProvisioningTask.DONE);
+        assertThat(matchRepository.findById(match.getId()).block().getTeamTask()).isNull();
+    }
+
+    @Test
+    void creatingAMatchWithAnExistingIdLeavesTheStoredOneAlone() {
+        Match match = matchService.createMatch(match(null)).block();
+        dispatcher.dispatchBatch().block();
+
+        Match again = match(match.getId());
+        again.setLocation("Mumbai");
+        assertThatThrownBy(() -> matchService.createMatch(again).block()).hasMessageContaining("already exists");
+
+        assertThat(matchRepository.findById(match.getId()).block().getLocation()).isEqualTo("Chennai");
+        assertThat(dispatcher.dispatchBatch().block()).isZero();
+        assertThat(teamService.calls).hasValue(1);
+    }
+
+    @Test
+    void aTaskSavedBackIntoItsMatchIsNotProvisionedAgain() {
+        Match match = matchService.createMatch(match(null)).block();
+        // Read before the dispatcher moves the task, saved after, as startMatch would
+        Match stale = matchRepository.findById(match.getId()).block();
+        dispatcher.dispatchBatch().block();
+        matchRepository.save(stale).block();
+
+        assertThat(dispatcher.dispatchBatch().block()).isZero();
+
+        assertThat(teamService.calls).hasValue(1);
+        assertThat(matchRepository.findById(match.getId()).block().getTeamTask()).isNull();
+    }
+
+    @Test
+    void aFailedCallIsRetriedAndGivenUpAfterTheLastAttempt() {
+        Match match = matchService.createMatch(match(null)).block();
+        teamService.failing = true;
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofMinutes(1));
+
+        dispatcher.dispatchBatch().block();
+        TeamProvisioningTask retried = taskRepository.findById(match.getId()).block();
+        assertThat(retried.getStatus()).isEqualTo(TeamProvisioningTask.PENDING);
+        assertThat(retried.getLastError()).contains("Team service down");
+
+        // The backoff has passed
+        retried.setNextAttemptAt(new Date());
+        taskRepository.save(retried).block();
+        dispatcher.dispatchBatch().block();
+        assertThat(taskRepository.findById(match.getId()).block().getStatus()).isEqualTo(TeamProvisioningTask.FAILED);
+        assertThat(teamService.calls).hasValue(2);
+    }
+
+    @Test
+    void aClaimWhoseLeaseRanOutCannotRecordAnOutcome() {
+        Match match = match(1L);
+        taskRepository.save(new TeamProvisioningTask(match, new Date())).block();
+        Date now = new Date();
+
+        // The first claim's lease is already over, so a second instance takes the task
+        TeamProvisioningTask first = taskRepository.claimNext(now, new Date(now.getTime() - 1)).block();
+        TeamProvisioningTask second = taskRepository.claimNext(now, new Date(now.getTime() + 30_000)).block();
+
+        assertThat(taskRepository.markDone(match.getId(), first.getAttempts(), now).block()).isFalse();
+        assertThat(taskRepository.reschedule(match.getId(), first.getAttempts(), now, "late").block()).isFalse();
+        assertThat(taskRepository.markDone(match.getId(), second.getAttempts(), now).block()).isTrue();
+        assertThat(taskRepository.findById(match.getId()).block().getStatus()).isEqualTo(TeamProvisioningTask.DONE);
+    }
+
+    private static Match match(Long id) {
+        return new Match(id, "India", "Australia", new Date(), "Chennai", 11);
+    }
+
+    private static class StubTeamService extends TeamServiceClient {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing;
+
+        StubTeamService() {
+            super("http://localhost", WebClient.builder(), new SimpleMeterRegistry());
+        }
+
+        @Override
+        public Mono<Void> createTeamsForMatch(String matchId, List<String> teamNames, int teamSize) {
+            return Mono.defer(() -> {
+                calls.incrementAndGet();
+                return failing ? Mono.error(new RuntimeException("Team service down")) : Mono.empty();
+            });
+        }
+    }
+}
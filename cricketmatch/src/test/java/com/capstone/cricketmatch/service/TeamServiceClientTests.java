@@ -0,0 +1,167 @@
+package com.capstone.cricketmatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+// Runs against a local stand-in for the team service that answers each call as the test scripts it
+class TeamServiceClientTests {
+
+    private final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    // Status and delay in milliseconds for the n-th call, counting from 1
+    private volatile IntFunction<int[]> answer = call -> new int[] { 200, 0 };
+    private DisposableServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/api/teams/create-for-match", (request, response) -> {
+                    idempotencyKeys.add(request.requestHeaders().get("Idempotency-Key"));
+                    int[] scripted = answer.apply(calls.incrementAndGet());
+                    return request.receive().then()
+                            .then(Mono.delay(Duration.ofMillis(scripted[1])))
+                            .then(response.status(scripted[0]).send());
+                }))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void aRetryableAnswerIsRetriedWithTheSameIdempotencyKey() {
+        answer = call -> new int[] { call == 1 ? 503 : 200, 0 };
+        TeamServiceClient client = client(2, false);
+
+        client.createTeamsForMatch("m1", List.of("India", "Australia"), 11).block(Duration.ofSeconds(5));
+
+        assertThat(calls).hasValue(2);
+        assertThat(idempotencyKeys).containsExactly("m1", "m1");
+    }
+
+    @Test
+    void aClientErrorIsNeitherRetriedNorCountedAgainstTheService() {
+        answer = call -> new int[] { 400, 0 };
+        TeamServiceClient client = client(2, false);
+
+        assertThatThrownBy(() -> client.createTeamsForMatch("m1", List.of("India", "Australia"), 11)
+                .block(Duration.ofSeconds(5)))
+                .isInstanceOf(WebClientResponseException.BadRequest.class);
+
+        assertThat(calls).hasValue(1);
+        assertThat(breaker(client).getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+
+    @Test
+    void theBreakerOpensOnServerErrorsAndThenFailsFastWithoutRetrying() {
+        answer = call -> new int[] { 500, 0 };
+        TeamServiceClient client = client(2, false);
+
+        for (int i = 0; i < 4; i++) {
+            String matchId = "m" + i;
+            assertThatThrownBy(() -> client.createTeamsForMatch(matchId, List.of("India", "Australia"), 11)
+                    .block(Duration.ofSeconds(5)))
+                    .isInstanceOf(WebClientResponseException.InternalServerError.class);
+        }
+        assertThat(breaker(client).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> client.createTeamsForMatch("m5", List.of("India", "Australia"), 11)
+                .block(Duration.ofSeconds(5)))
+                .isInstanceOf(CallNotPermittedException.class);
+        // A 500 is not retryable, so each failed call reached the service once, and the rejected one never did
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    void aHedgeAnswersForASlowFirstAttempt() {
+        answer = call -> new int[] { 200, call == 1 ? 3_000 : 0 };
+        TeamServiceClient client = client(0, true);
+
+        long started = System.nanoTime();
+        client.createTeamsForMatch("m1", List.of("India", "Australia"), 11).block(Duration.ofSeconds(5));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+        assertThat(idempotencyKeys).containsExactly("m1", "m1");
+    }
+
+    @Test
+    void onlyAnswersThatSayNothingAboutTheRequestAreRetried() {
+        assertThat(TeamServiceClient.isRetryable(response(HttpStatus.SERVICE_UNAVAILABLE))).isTrue();
+        assertThat(TeamServiceClient.isRetryable(response(HttpStatus.TOO_MANY_REQUESTS))).isTrue();
+        assertThat(TeamServiceClient.isRetryable(response(HttpStatus.INTERNAL_SERVER_ERROR))).isFalse();
+        assertThat(TeamServiceClient.isRetryable(response(HttpStatus.CONFLICT))).isFalse();
+        assertThat(TeamServiceClient.isRetryable(new WebClientRequestException(new RuntimeException("refused"),
+                HttpMethod.POST, URI.create("http://localhost"), new HttpHeaders())))
+                .isTrue();
+        assertThat(TeamServiceClient.isRetryable(CallNotPermittedException.createCallNotPermittedException(
+                CircuitBreaker.ofDefaults("team-service")))).isFalse();
+
+        assertThat(TeamServiceClient.isServiceFailure(response(HttpStatus.INTERNAL_SERVER_ERROR))).isTrue();
+        assertThat(TeamServiceClient.isServiceFailure(response(HttpStatus.TOO_MANY_REQUESTS))).isTrue();
+        assertThat(TeamServiceClient.isServiceFailure(response(HttpStatus.BAD_REQUEST))).isFalse();
+        assertThat(TeamServiceClient.isServiceFailure(new RuntimeException("timed out"))).isTrue();
+    }
+
+    private TeamServiceClient client(int retries, boolean hedge) {
+        TeamServiceClient client = new TeamServiceClient("http://localhost:" + server.port(), WebClient.builder(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "maxConnections", 10);
+        ReflectionTestUtils.setField(client, "pendingAcquireMaxCount", 10);
+        ReflectionTestUtils.setField(client, "pendingAcquireTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(client, "maxIdleTime", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(client, "connectTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(client, "responseTimeout", Duration.ofSeconds(4));
+        ReflectionTestUtils.setField(client, "retryMaxAttempts", retries);
+        ReflectionTestUtils.setField(client, "retryMinBackoff", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(client, "retryMaxBackoff", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(client, "retryJitter", 0.5);
+        ReflectionTestUtils.setField(client, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(client, "slowCallDurationThreshold", Duration.ofSeconds(3));
+        ReflectionTestUtils.setField(client, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(client, "minimumNumberOfCalls", 4);
+        ReflectionTestUtils.setField(client, "waitDurationInOpenState", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(client, "permittedCallsInHalfOpenState", 1);
+        ReflectionTestUtils.setField(client, "hedgeEnabled", hedge);
+        ReflectionTestUtils.setField(client, "hedgeDelay", Duration.ofMillis(200));
+        client.init();
+        return client;
+    }
+
+    private static CircuitBreaker breaker(TeamServiceClient client) {
+        return (CircuitBreaker) ReflectionTestUtils.getField(client, "circuitBreaker");
+    }
+
+    private static WebClientResponseException response(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), new HttpHeaders(), new byte[0],
+                StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,24 @@
+package com.capstone.ids;
+
+// Digits, then upper and lower case letters; a positive 64-bit id takes at most 11 characters
+public final class Base62 {
+
+    private static final char[] ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private Base62() {
+    }
+
+    public static String encode(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Only non-negative values can be encoded: " + value);
+        }
+        char[] buffer = new char[11];
+        int position = buffer.length;
+        do {
+            buffer[--position] = ALPHABET[(int) (value % 62)];
+            value /= 62;
+        } while (value > 0);
+        return new String(buffer, position, buffer.length - position);
+    }
+}
@@ -0,0 +1,16 @@
+package com.capstone.ids;
+
+// Source of unique 64-bit ids and the short codes derived from them; a bean of another implementation replaces the default
+public interface IdAllocator {
+
+    long nextId();
+
+    // Short, URL-safe text form of an id; as unique as the ids themselves
+    default String toCode(long id) {
+        return Base62.encode(id);
+    }
+
+    default String nextCode() {
+        return toCode(nextId());
+    }
+}
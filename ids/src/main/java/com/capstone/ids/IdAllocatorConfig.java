@@ -0,0 +1,42 @@
+package com.capstone.ids;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+// Imported by each service. Every running instance needs its own ids.node-id; only the profiles listed in
+// ids.derived-node-id-profiles may fall back to one derived from the host and pid.
+@Configuration
+public class IdAllocatorConfig {
+
+    @Bean
+    public SnowflakeIdAllocator idAllocator(Environment environment,
+                                            @Value("${ids.node-id:-1}") long nodeId,
+                                            @Value("${ids.derived-node-id-profiles:local,dev}") String[] derivedNodeIdProfiles) {
+        if (nodeId >= 0) {
+            return new SnowflakeIdAllocator(nodeId);
+        }
+        if (derivedNodeIdProfiles.length == 0 || !environment.acceptsProfiles(Profiles.of(derivedNodeIdProfiles))) {
+            throw new IllegalStateException("Required property ids.node-id is not set. Give every instance its own "
+                    + "node id between 0 and " + SnowflakeIdAllocator.MAX_NODE_ID + ", or activate one of the profiles "
+                    + Arrays.toString(derivedNodeIdProfiles) + " for a local run");
+        }
+        // Derived from the host and pid, so another instance may share it
+        return new SnowflakeIdAllocator(SnowflakeIdAllocator.derivedNodeId());
+    }
+
+    // The node this instance allocates as, under "ids" on /actuator/info
+    @Bean
+    public InfoContributor idAllocatorInfoContributor(SnowflakeIdAllocator idAllocator,
+                                                      @Value("${ids.node-id:-1}") long configuredNodeId) {
+        return builder -> builder.withDetail("ids", Map.of(
+                "nodeId", idAllocator.getNodeId(),
+                "derived", configuredNodeId < 0));
+    }
+}
@@ -0,0 +1,137 @@
+package com.capstone.ids;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class SnowflakeIdAllocatorTests {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    void idsIncreaseWithinAndAcrossMilliseconds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(5, clock::get);
+
+        long last = -1;
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 100 == 0) {
+                clock.addAndGet(1);
+            }
+            long id = allocator.nextId();
+            assertThat(id).isGreaterThan(last);
+            assertThat(nodeOf(id)).isEqualTo(5);
+            last = id;
+        }
+    }
+
+    @Test
+    void anExhaustedSequenceCarriesIntoTheNextMillisecond() {
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, () -> NOW);
+
+        long last = -1;
+        for (int i = 0; i < SnowflakeIdAllocator.SEQUENCE_MASK + 1 + 10; i++) {
+            long id = allocator.nextId();
+            assertThat(id).isGreaterThan(last);
+            last = id;
+        }
+
+        // 4096 ids fit in one millisecond; the other 10 are issued ahead of the clock instead of waiting for it
+        assertThat(millisOf(last)).isEqualTo(NOW - SnowflakeIdAllocator.EPOCH + 1);
+        assertThat(last & SnowflakeIdAllocator.SEQUENCE_MASK).isEqualTo(9);
+    }
+
+    @Test
+    void aClockThatGoesBackNeverRepeatsAnId() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, clock::get);
+
+        long beforeJump = allocator.nextId();
+        clock.set(NOW - 5_000);
+        long afterJump = allocator.nextId();
+        clock.set(NOW + 1);
+        long recovered = allocator.nextId();
+
+        assertThat(afterJump).isGreaterThan(beforeJump);
+        assertThat(millisOf(afterJump)).isEqualTo(millisOf(beforeJump));
+        assertThat(recovered).isGreaterThan(afterJump);
+        assertThat(millisOf(recovered)).isEqualTo(NOW + 1 - SnowflakeIdAllocator.EPOCH);
+    }
+
+    @Test
+    void concurrentCallersGetDistinctIds() throws Exception {
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                callers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(allocator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(ids).hasSize(160_000);
+    }
+
+    @Test
+    void nodesWithDistinctIdsNeverCollide() {
+        SnowflakeIdAllocator first = new SnowflakeIdAllocator(1, () -> NOW);
+        SnowflakeIdAllocator second = new SnowflakeIdAllocator(2, () -> NOW);
+
+        assertThat(first.nextId()).isNotEqualTo(second.nextId());
+        assertThatThrownBy(() -> new SnowflakeIdAllocator(1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdAllocator(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void firstIdAtIsBelowEveryIdIssuedFromThatTime() {
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(0, () -> NOW);
+        SnowflakeIdAllocator later = new SnowflakeIdAllocator(1023, () -> NOW + 1);
+
+        assertThat(SnowflakeIdAllocator.firstIdAt(NOW)).isLessThanOrEqualTo(allocator.nextId());
+        assertThat(SnowflakeIdAllocator.firstIdAt(NOW + 1)).isGreaterThan(allocator.nextId());
+        assertThat(SnowflakeIdAllocator.firstIdAt(NOW + 1)).isLessThanOrEqualTo(later.nextId());
+    }
+
+    @Test
+    void aNodeIdIsRequiredOutsideTheLocalProfiles() {
+        IdAllocatorConfig config = new IdAllocatorConfig();
+        String[] localProfiles = { "local", "dev" };
+
+        assertThatThrownBy(() -> config.idAllocator(new MockEnvironment(), -1, localProfiles))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ids.node-id is not set");
+        assertThat(config.idAllocator(new MockEnvironment(), 7, localProfiles).getNodeId()).isEqualTo(7);
+
+        MockEnvironment local = new MockEnvironment();
+        local.setActiveProfiles("local");
+        assertThat(config.idAllocator(local, -1, localProfiles).getNodeId()).isBetween(0L, 1023L);
+    }
+
+    private static long nodeOf(long id) {
+        return (id >>> SnowflakeIdAllocator.SEQUENCE_BITS) & SnowflakeIdAllocator.MAX_NODE_ID;
+    }
+
+    private static long millisOf(long id) {
+        return id >>> (SnowflakeIdAllocator.NODE_BITS + SnowflakeIdAllocator.SEQUENCE_BITS);
+    }
+}
@@ -0,0 +1,108 @@
+package com.capstone.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+// Samples the Players group's lag (log end offset minus committed offset) per partition while the load runs
+public class ConsumerLagMonitor implements AutoCloseable {
+
+    private final AdminClient admin;
+    private final LoadTestSettings settings;
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "consumer-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Map<Integer, Long> lastLag = Map.of();
+    private volatile long maxTotalLag;
+
+    public ConsumerLagMonitor(String bootstrapServers, LoadTestSettings settings) {
+        this.admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        this.settings = settings;
+    }
+
+    public void start() {
+        long period = settings.lagSampleInterval().toMillis();
+        sampler.scheduleAtFixedRate(this::sampleQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Blocks until the group has caught up with everything produced, or the timeout passes; returns the time it took
+    public Duration awaitDrained(Duration timeout) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (totalLag(sample()) == 0) {
+                return Duration.ofNanos(System.nanoTime() - start);
+            }
+            Thread.sleep(settings.lagSampleInterval().toMillis());
+        }
+        return null;
+    }
+
+    public Map<Integer, Long> lastLag() {
+        return lastLag;
+    }
+
+    public long maxTotalLag() {
+        return maxTotalLag;
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (Exception e) {
+            System.out.println("Failed to sample consumer lag: " + e);
+        }
+    }
+
+    private synchronized Map<Integer, Long> sample() {
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        for (int partition = 0; partition < settings.partitions(); partition++) {
+            latest.put(new TopicPartition(settings.topic(), partition), OffsetSpec.latest());
+        }
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = admin
+                    .listConsumerGroupOffsets(settings.consumerGroup())
+                    .partitionsToOffsetAndMetadata().get();
+            Map<TopicPartition, ListOffsetsResultInfo> ends = admin.listOffsets(latest).all().get();
+
+            Map<Integer, Long> lag = new TreeMap<>();
+            ends.forEach((partition, end) -> {
+                OffsetAndMetadata offset = committed.get(partition);
+                lag.put(partition.partition(), end.offset() - (offset == null ? 0 : offset.offset()));
+            });
+            lastLag = lag;
+            maxTotalLag = Math.max(maxTotalLag, totalLag(lag));
+            return lag;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading consumer lag", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to read consumer lag", e.getCause());
+        }
+    }
+
+    private static long totalLag(Map<Integer, Long> lag) {
+        return lag.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+        admin.close();
+    }
+}
@@ -0,0 +1,135 @@
+package com.capstone.loadtest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import com.capstone.Players.model.User;
+import com.capstone.cricketmatch.entity.Match;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Fills the users and matches collections with synthetic data: the players of the live matches plus a large background set
+public class DatasetGenerator {
+
+    private static final int INSERT_BATCH = 1_000;
+    private static final int INSERT_CONCURRENCY = 4;
+    private static final String[] VENUES = {
+        "Mumbai", "Chennai", "Kolkata", "Delhi", "Bengaluru", "Hyderabad", "Ahmedabad", "Lucknow", "Jaipur", "Pune"
+    };
+    private static final String[] TEAMS = {
+        "Mumbai Indians", "Chennai Kings", "Kolkata Riders", "Delhi Capitals", "Bengaluru Challengers",
+        "Hyderabad Risers", "Gujarat Titans", "Lucknow Giants", "Rajasthan Royals", "Punjab Kings"
+    };
+
+    private final ReactiveMongoTemplate playersMongo;
+    private final ReactiveMongoTemplate matchesMongo;
+    private final LoadTestSettings settings;
+
+    public DatasetGenerator(ReactiveMongoTemplate playersMongo, ReactiveMongoTemplate matchesMongo, LoadTestSettings settings) {
+        this.playersMongo = playersMongo;
+        this.matchesMongo = matchesMongo;
+        this.settings = settings;
+    }
+
+    // Inserts everything and returns the matches to be played
+    public Mono<List<LiveMatch>> generate() {
+        int totalUsers = settings.livePlayers() + settings.extraUsers();
+        int totalMatches = settings.matches() + settings.extraMatches();
+        return insertBatches(totalUsers, this::users, playersMongo)
+                .then(insertBatches(totalMatches, this::matches, matchesMongo))
+                .then(Mono.fromSupplier(this::liveMatches));
+    }
+
+    private <T> Mono<Void> insertBatches(int total, BatchFactory<T> factory, ReactiveMongoTemplate template) {
+        return Flux.range(0, (total + INSERT_BATCH - 1) / INSERT_BATCH)
+                .flatMap(batch -> {
+                    int from = batch * INSERT_BATCH;
+                    List<T> documents = factory.create(from, Math.min(from + INSERT_BATCH, total));
+                    return template.insertAll(documents).then();
+                }, INSERT_CONCURRENCY)
+                .then();
+    }
+
+    private List<User> users(int from, int to) {
+        SplittableRandom random = new SplittableRandom(settings.seed() ^ from);
+        List<User> users = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            User user = new User(userName(i), "player" + i + "@loadtest.local", "PLAYER");
+            user.setUserId(userId(i));
+            user.setPassword("loadtest");
+            // Only the background users carry history; live players start from zero so arrivals can be verified
+            if (i >= settings.livePlayers()) {
+                int matchesPlayed = random.nextInt(1, 200);
+                user.setTotalMatches(matchesPlayed);
+                user.setTotalScore(matchesPlayed * random.nextInt(0, 40));
+                user.setTotalWickets(matchesPlayed * random.nextInt(0, 2));
+                user.setHighestScore(random.nextInt(0, 150));
+                user.setHighestWickets(random.nextInt(0, 6));
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    private List<Match> matches(int from, int to) {
+        SplittableRandom random = new SplittableRandom(settings.seed() ^ ~from);
+        long now = System.currentTimeMillis();
+        List<Match> matches = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int home = random.nextInt(TEAMS.length);
+            int away = (home + 1 + random.nextInt(TEAMS.length - 1)) % TEAMS.length;
+            Match match = new Match((long) i, TEAMS[home], TEAMS[away],
+                    new Date(now - TimeUnit.DAYS.toMillis(random.nextInt(0, 3 * 365))),
+                    VENUES[random.nextInt(VENUES.length)], settings.playersPerMatch() / 2);
+            // Deterministic codes, so the unique code index never rejects a generated match
+            match.setCode(matchCode(i));
+            if (i < settings.matches()) {
+                match.setStatus("Ongoing");
+                match.setDate(new Date(now));
+            } else {
+                match.setStatus("Completed");
+                match.setWinner(random.nextBoolean() ? TEAMS[home] : TEAMS[away]);
+            }
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    private List<LiveMatch> liveMatches() {
+        List<LiveMatch> live = new ArrayList<>(settings.matches());
+        for (int m = 0; m < settings.matches(); m++) {
+            List<String> userIds = new ArrayList<>(settings.playersPerMatch());
+            List<String> userNames = new ArrayList<>(settings.playersPerMatch());
+            for (int p = 0; p < settings.playersPerMatch(); p++) {
+                int user = m * settings.playersPerMatch() + p;
+                userIds.add(userId(user));
+                userNames.add(userName(user));
+            }
+            live.add(new LiveMatch(m, matchCode(m), userIds, userNames));
+        }
+        return live;
+    }
+
+    static String userId(int index) {
+        return "UID-LT" + index;
+    }
+
+    static String userName(int index) {
+        return "Player " + index;
+    }
+
+    static String matchCode(int index) {
+        return "LT" + Integer.toString(index, 36).toUpperCase();
+    }
+
+    @FunctionalInterface
+    private interface BatchFactory<T> {
+        List<T> create(int from, int to);
+    }
+}
@@ -0,0 +1,7 @@
+package com.capstone.loadtest;
+
+import java.util.List;
+
+// A generated match that the load generator plays ball by ball, with the users batting and bowling in it
+public record LiveMatch(long id, String code, List<String> userIds, List<String> userNames) {
+}
@@ -0,0 +1,115 @@
+package com.capstone.loadtest;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Recorder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.capstone.Players.dto.PlayerStatsDTO;
+import com.capstone.cricketmatch.entity.PlayerStats;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Plays every live match concurrently, one ball at a time, through cricketmatch /api/schedule and times
+// how long sampled runs take to show up in Players /api/user/stats/{userId}
+public class LoadGenerator {
+
+    // Runs per ball, weighted roughly like a T20 innings
+    private static final int[] RUNS = {0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 2, 2, 3, 4, 4, 4, 6, 6};
+    private static final double WICKET_RATE = 0.04;
+
+    private final WebClient cricketmatch;
+    private final WebClient players;
+    private final LoadTestSettings settings;
+
+    // End-to-end latency in microseconds, from just before the score is posted to the first read that reflects it
+    private final Recorder latency = new Recorder(3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder sendErrors = new LongAdder();
+    private final LongAdder probesTimedOut = new LongAdder();
+
+    public LoadGenerator(WebClient cricketmatch, WebClient players, LoadTestSettings settings) {
+        this.cricketmatch = cricketmatch;
+        this.players = players;
+        this.settings = settings;
+    }
+
+    public Mono<Void> run(List<LiveMatch> matches) {
+        return Flux.fromIterable(matches)
+                .flatMap(this::play, matches.size())
+                .then();
+    }
+
+    private Flux<Void> play(LiveMatch match) {
+        SplittableRandom random = new SplittableRandom(settings.seed() ^ match.id());
+        // Runs each player of this match is known to have scored so far; only this match's sequence touches it
+        int[] expectedTotals = new int[match.userIds().size()];
+        return Flux.range(0, settings.ballsPerMatch())
+                .concatMap(ball -> Mono.delay(settings.ballInterval()).then(bowl(match, expectedTotals, random)))
+                .flatMap(this::probe);
+    }
+
+    private Mono<Probe> bowl(LiveMatch match, int[] expectedTotals, SplittableRandom random) {
+        int batter = random.nextInt(expectedTotals.length);
+        int runs = RUNS[random.nextInt(RUNS.length)];
+        int wickets = random.nextDouble() < WICKET_RATE ? 1 : 0;
+        expectedTotals[batter] += runs;
+
+        PlayerStats event = new PlayerStats(match.userIds().get(batter), match.userNames().get(batter), runs, wickets);
+        event.setMatchCode(match.code());
+        boolean sampled = runs > 0 && random.nextDouble() < settings.probeRate();
+        Probe probe = new Probe(event.getPlayerId(), expectedTotals[batter], System.nanoTime());
+
+        return cricketmatch.post()
+                .uri("/api/schedule")
+                .bodyValue(event)
+                .retrieve()
+                .toBodilessEntity()
+                .doOnSuccess(response -> sent.increment())
+                .then(sampled ? Mono.just(probe) : Mono.<Probe>empty())
+                .onErrorResume(error -> {
+                    sendErrors.increment();
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> probe(Probe probe) {
+        return players.get()
+                .uri("/api/user/stats/{userId}", probe.userId())
+                .retrieve()
+                .bodyToMono(PlayerStatsDTO.class)
+                .filter(stats -> stats.getTotalScore() >= probe.expectedTotal())
+                .repeatWhenEmpty(polls -> polls.delayElements(settings.probeInterval()))
+                .timeout(settings.probeTimeout())
+                .doOnNext(stats -> latency.recordValue(
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - probe.startNanos())))
+                .onErrorResume(error -> {
+                    probesTimedOut.increment();
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public Recorder latency() {
+        return latency;
+    }
+
+    public long sent() {
+        return sent.sum();
+    }
+
+    public long sendErrors() {
+        return sendErrors.sum();
+    }
+
+    public long probesTimedOut() {
+        return probesTimedOut.sum();
+    }
+
+    private record Probe(String userId, int expectedTotal, long startNanos) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.capstone.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.streams.KafkaStreams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.capstone.Players.PlayersApplication;
+import com.capstone.Players.service.ReactiveScoreConsumer;
+import com.capstone.cricketmatch.CricketmatchApplication;
+
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+// Starts Kafka and Mongo stand-ins, boots Players and cricketmatch against them in this JVM, seeds a synthetic
+// dataset and plays the configured matches, then reports end-to-end latency, throughput and consumer lag.
+// Usage: java -jar target/loadtest.jar [--loadtest.matches=200] [--loadtest.balls-per-match=120] ...
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.from(args);
+        LoadTestReport report;
+        try (StandIns standIns = StandIns.start(settings)) {
+            System.out.println("Kafka at " + standIns.bootstrapServers() + ", Mongo at " + standIns.mongoUri());
+            ConfigurableApplicationContext players = startPlayers(settings, standIns);
+            ConfigurableApplicationContext cricketmatch = startCricketmatch(settings, standIns);
+            try {
+                report = run(settings, standIns, players, cricketmatch);
+            } finally {
+                cricketmatch.close();
+                players.close();
+            }
+        }
+        report.print();
+        report.write(settings.reportFile());
+        System.out.println("Report written to " + settings.reportFile());
+        System.exit(0);
+    }
+
+    private static LoadTestReport run(LoadTestSettings settings, StandIns standIns,
+            ConfigurableApplicationContext players, ConfigurableApplicationContext cricketmatch) throws Exception {
+        // The score listener starts at the latest offset, so nothing may be produced before it owns the partitions
+        for (MessageListenerContainer container : players.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers()) {
+            if (container.isRunning() && List.of(container.getContainerProperties().getTopics()).contains(settings.topic())) {
+                ContainerTestUtils.waitForAssignment(container, settings.partitions());
+            }
+        }
+        // With -Dplayers.kafka.mode=streams the career-stats topology reads the topic instead (pass its application id
+        // as loadtest.consumer-group to follow its lag)
+        StreamsBuilderFactoryBean streams = players.getBeanProvider(StreamsBuilderFactoryBean.class).getIfAvailable();
+        if (streams != null) {
+            awaitRunning(streams.getKafkaStreams(), Duration.ofMinutes(1));
+        }
+        // and with -Dplayers.kafka.mode=reactive the reactor-kafka receiver does, in the listener's group
+        ReactiveScoreConsumer receiver = players.getBeanProvider(ReactiveScoreConsumer.class).getIfAvailable();
+        if (receiver != null) {
+            awaitAssigned(receiver, settings.partitions(), Duration.ofMinutes(1));
+        }
+
+        long seedStart = System.nanoTime();
+        List<LiveMatch> matches = new DatasetGenerator(
+                players.getBean(ReactiveMongoTemplate.class),
+                cricketmatch.getBean(ReactiveMongoTemplate.class),
+                settings).generate().block();
+        System.out.printf("Seeded %d users and %d matches in %.1fs%n",
+                settings.livePlayers() + settings.extraUsers(), settings.matches() + settings.extraMatches(),
+                (System.nanoTime() - seedStart) / 1e9);
+
+        // Enough connections for every match to post and every open probe to poll without queueing on the pool
+        ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(settings.matches() * 2)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient.Builder clients = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)));
+        LoadGenerator generator = new LoadGenerator(
+                clients.clone().baseUrl("http://localhost:" + port(cricketmatch)).build(),
+                clients.clone().baseUrl("http://localhost:" + port(players)).build(),
+                settings);
+
+        try (ConsumerLagMonitor lag = new ConsumerLagMonitor(standIns.bootstrapServers(), settings)) {
+            lag.start();
+            System.out.printf("Playing %d matches of %d balls%n", settings.matches(), settings.ballsPerMatch());
+            long start = System.nanoTime();
+            generator.run(matches).block();
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+            Histogram latency = generator.latency().getIntervalHistogram();
+
+            Duration drain = lag.awaitDrained(settings.drainTimeout());
+            connections.dispose();
+            return LoadTestReport.of(settings, standIns.inMemoryMongo(), generator, latency, elapsedSeconds, lag,
+                    drain == null ? null : drain.toMillis() / 1000.0);
+        }
+    }
+
+    private static void awaitRunning(KafkaStreams kafkaStreams, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (kafkaStreams.state() != KafkaStreams.State.RUNNING) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Kafka Streams not running after " + timeout + ": " + kafkaStreams.state());
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static void awaitAssigned(ReactiveScoreConsumer receiver, int partitions, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (receiver.getAssignment().size() < partitions) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Reactive receiver owns " + receiver.getAssignment() + " after " + timeout);
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static ConfigurableApplicationContext startPlayers(LoadTestSettings settings, StandIns standIns) {
+        Map<String, Object> properties = commonProperties(standIns);
+        properties.put("spring.application.name", "Player");
+        properties.put("players.kafka.topic", settings.topic());
+        properties.put("players.kafka.value-format", settings.valueFormat());
+        // Both services allocate ids in this JVM, so they must not derive the same node id from the host and pid
+        properties.put("ids.node-id", 1);
+        // Players is a WebFlux service; cricketmatch brings the servlet stack onto this shared classpath
+        return new SpringApplicationBuilder(PlayersApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties(properties)
+                .run();
+    }
+
+    private static ConfigurableApplicationContext startCricketmatch(LoadTestSettings settings, StandIns standIns) {
+        Map<String, Object> properties = commonProperties(standIns);
+        properties.put("spring.application.name", "cricketmatch");
+        properties.put("matches.kafka.topic", settings.topic());
+        properties.put("matches.kafka.value-format", settings.valueFormat());
+        properties.put("ids.node-id", 2);
+        // Matches are seeded directly, so the team service is never called
+        properties.put("team.service.url", "http://localhost:8081");
+        return new SpringApplicationBuilder(CricketmatchApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(properties)
+                .run();
+    }
+
+    private static Map<String, Object> commonProperties(StandIns standIns) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("spring.data.mongodb.uri", standIns.mongoUri());
+        properties.put("spring.kafka.bootstrap-servers", standIns.bootstrapServers());
+        properties.put("logging.level.root", "WARN");
+        return properties;
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+}
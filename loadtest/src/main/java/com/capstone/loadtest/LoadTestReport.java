@@ -0,0 +1,78 @@
+package com.capstone.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// What one run measured; printed to stdout and written as JSON so runs can be compared
+public record LoadTestReport(
+        LoadTestSettings settings,
+        boolean inMemoryMongo,
+        long scoresSent,
+        long sendErrors,
+        double elapsedSeconds,
+        double throughputPerSecond,
+        long latencySamples,
+        long probesTimedOut,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis,
+        long maxConsumerLag,
+        Map<Integer, Long> finalConsumerLag,
+        Double drainSeconds) {
+
+    public static LoadTestReport of(LoadTestSettings settings, boolean inMemoryMongo, LoadGenerator generator,
+            Histogram latency, double elapsedSeconds, ConsumerLagMonitor lag, Double drainSeconds) {
+        return new LoadTestReport(
+                settings,
+                inMemoryMongo,
+                generator.sent(),
+                generator.sendErrors(),
+                elapsedSeconds,
+                generator.sent() / elapsedSeconds,
+                latency.getTotalCount(),
+                generator.probesTimedOut(),
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()),
+                lag.maxTotalLag(),
+                lag.lastLag(),
+                drainSeconds);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public void print() {
+        System.out.println("---- Load test report ----");
+        System.out.printf("Matches: %d x %d balls, %d players each, ball every %s%n",
+                settings.matches(), settings.ballsPerMatch(), settings.playersPerMatch(), settings.ballInterval());
+        System.out.printf("Mongo: %s%n", inMemoryMongo ? "in-memory stand-in" : settings.mongoUri());
+        System.out.printf("Scores sent: %d (%d errors) in %.1fs, %.0f/s%n",
+                scoresSent, sendErrors, elapsedSeconds, throughputPerSecond);
+        System.out.printf("End-to-end latency over %d samples (%d timed out): p50 %.1fms, p99 %.1fms, p999 %.1fms, max %.1fms%n",
+                latencySamples, probesTimedOut, p50Millis, p99Millis, p999Millis, maxMillis);
+        System.out.printf("Consumer lag: max %d, at end of load %s, drained %s%n",
+                maxConsumerLag, finalConsumerLag, drainSeconds == null ? "not within timeout" : drainSeconds + "s");
+    }
+
+    public void write(String path) throws IOException {
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(file, this);
+    }
+}
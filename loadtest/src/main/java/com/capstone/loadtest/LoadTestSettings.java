@@ -0,0 +1,68 @@
+package com.capstone.loadtest;
+
+import java.time.Duration;
+
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+// Workload and stand-in knobs, read from --loadtest.* arguments or -Dloadtest.* system properties
+public record LoadTestSettings(
+        int matches,
+        int playersPerMatch,
+        int ballsPerMatch,
+        Duration ballInterval,
+        double probeRate,
+        Duration probeInterval,
+        Duration probeTimeout,
+        int extraUsers,
+        int extraMatches,
+        int partitions,
+        String topic,
+        String consumerGroup,
+        String valueFormat,
+        String mongoUri,
+        Duration lagSampleInterval,
+        Duration drainTimeout,
+        long seed,
+        String reportFile) {
+
+    public static LoadTestSettings from(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        // The plain environment only converts simple types; Boot's service also reads durations such as 30s or 2m
+        environment.setConversionService(new ApplicationConversionService());
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        return from(environment);
+    }
+
+    public static LoadTestSettings from(Environment env) {
+        return new LoadTestSettings(
+                env.getProperty("loadtest.matches", Integer.class, 200),
+                env.getProperty("loadtest.players-per-match", Integer.class, 22),
+                env.getProperty("loadtest.balls-per-match", Integer.class, 120),
+                env.getProperty("loadtest.ball-interval", Duration.class, Duration.ofMillis(50)),
+                // Share of scoring balls whose arrival in Players is timed
+                env.getProperty("loadtest.probe-rate", Double.class, 0.1),
+                env.getProperty("loadtest.probe-interval", Duration.class, Duration.ofMillis(10)),
+                env.getProperty("loadtest.probe-timeout", Duration.class, Duration.ofSeconds(30)),
+                // Background data that is not scored but sits in the same collections and indexes
+                env.getProperty("loadtest.extra-users", Integer.class, 100_000),
+                env.getProperty("loadtest.extra-matches", Integer.class, 10_000),
+                env.getProperty("loadtest.partitions", Integer.class, 6),
+                env.getProperty("loadtest.topic", "match-score"),
+                // Group of the Players score listener
+                env.getProperty("loadtest.consumer-group", "my-group"),
+                env.getProperty("loadtest.value-format", "binary"),
+                // Empty runs the in-memory Mongo stand-in; set it to measure against a real mongod
+                env.getProperty("loadtest.mongo-uri", ""),
+                env.getProperty("loadtest.lag-sample-interval", Duration.class, Duration.ofSeconds(1)),
+                env.getProperty("loadtest.drain-timeout", Duration.class, Duration.ofMinutes(2)),
+                env.getProperty("loadtest.seed", Long.class, 42L),
+                env.getProperty("loadtest.report-file", "target/loadtest-report.json"));
+    }
+
+    public int livePlayers() {
+        return matches * playersPerMatch;
+    }
+}
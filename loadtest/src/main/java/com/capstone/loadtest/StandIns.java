@@ -0,0 +1,62 @@
+package com.capstone.loadtest;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+// A single-node KRaft broker and an in-memory Mongo wire-protocol server, both inside this JVM
+public final class StandIns implements AutoCloseable {
+
+    private static final String DATABASE = "loadtest";
+
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final MongoServer mongo;
+    private final String mongoUri;
+
+    private StandIns(EmbeddedKafkaKraftBroker kafka, MongoServer mongo, String mongoUri) {
+        this.kafka = kafka;
+        this.mongo = mongo;
+        this.mongoUri = mongoUri;
+    }
+
+    public static StandIns start(LoadTestSettings settings) {
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, settings.partitions(), settings.topic());
+        // A single broker can only hold one replica of the transaction log that exactly-once streams need
+        kafka.brokerProperties(Map.of(
+                "transaction.state.log.replication.factor", "1",
+                "transaction.state.log.min.isr", "1"));
+        kafka.afterPropertiesSet();
+
+        if (!settings.mongoUri().isBlank()) {
+            return new StandIns(kafka, null, settings.mongoUri());
+        }
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = mongo.bind();
+        String uri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/" + DATABASE;
+        return new StandIns(kafka, mongo, uri);
+    }
+
+    public String bootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    public String mongoUri() {
+        return mongoUri;
+    }
+
+    public boolean inMemoryMongo() {
+        return mongo != null;
+    }
+
+    @Override
+    public void close() {
+        if (mongo != null) {
+            mongo.shutdownNow();
+        }
+        kafka.destroy();
+    }
+}
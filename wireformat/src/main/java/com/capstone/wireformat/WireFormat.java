@@ -0,0 +1,156 @@
+package com.capstone.wireformat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+// Primitives of the compact score-event encoding, which cricketmatch writes and Players reads from this one source:
+// one version byte, then fields in a fixed order as zig-zag varints and varint-length-prefixed UTF-8 strings.
+// New versions may only append fields, so a reader ignores bytes after the fields it knows.
+public final class WireFormat {
+
+    public static final byte VERSION_1 = 1;
+    // Version 1 plus the producer-assigned eventId, which the consumer dedupes on
+    public static final byte VERSION_2 = 2;
+
+    // Worst-case encoded size of an int and a long varint
+    public static final int MAX_VARINT_BYTES = 5;
+    public static final int MAX_VARLONG_BYTES = 10;
+
+    private WireFormat() {
+    }
+
+    public static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static int sizeOf(byte[] string) {
+        return MAX_VARINT_BYTES + (string == null ? 0 : string.length);
+    }
+
+    public static final class Writer {
+        private final byte[] buffer;
+        private int position;
+
+        public Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        public Writer writeByte(byte value) {
+            buffer[position++] = value;
+            return this;
+        }
+
+        public Writer writeInt(int value) {
+            return writeUnsignedVarint((value << 1) ^ (value >> 31));
+        }
+
+        public Writer writeLong(long value) {
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            buffer[position++] = (byte) zigZag;
+            return this;
+        }
+
+        // Length + 1 so that 0 can stand for null
+        public Writer writeString(byte[] utf8) {
+            if (utf8 == null) {
+                return writeUnsignedVarint(0);
+            }
+            writeUnsignedVarint(utf8.length + 1);
+            System.arraycopy(utf8, 0, buffer, position, utf8.length);
+            position += utf8.length;
+            return this;
+        }
+
+        private Writer writeUnsignedVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+            return this;
+        }
+
+        public byte[] toByteArray() {
+            if (position == buffer.length) {
+                return buffer;
+            }
+            byte[] result = new byte[position];
+            System.arraycopy(buffer, 0, result, 0, position);
+            return result;
+        }
+    }
+
+    public static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        public Reader(byte[] data) {
+            this.data = data;
+        }
+
+        // Reads the version byte and rejects versions this build does not understand
+        public byte readVersion(byte latestKnown) {
+            byte version = readByte();
+            if (version < VERSION_1 || version > latestKnown) {
+                throw new SerializationException("Unsupported score event wire format version " + version);
+            }
+            return version;
+        }
+
+        public byte readByte() {
+            ensureAvailable(1);
+            return data[position++];
+        }
+
+        public int readInt() {
+            int raw = readUnsignedVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        public long readLong() {
+            long raw = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                byte b = readByte();
+                raw |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (raw >>> 1) ^ -(raw & 1);
+                }
+            }
+            throw new SerializationException("Malformed varlong in score event");
+        }
+
+        public String readString() {
+            int length = readUnsignedVarint() - 1;
+            if (length < 0) {
+                return null;
+            }
+            ensureAvailable(length);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private int readUnsignedVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in score event");
+        }
+
+        private void ensureAvailable(int length) {
+            if (position + length > data.length) {
+                throw new SerializationException("Truncated score event");
+            }
+        }
+    }
+}
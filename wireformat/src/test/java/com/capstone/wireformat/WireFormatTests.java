@@ -0,0 +1,60 @@
+package com.capstone.wireformat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+class WireFormatTests {
+
+    @Test
+    void fieldsRoundTripIncludingExtremesAndNull() {
+        byte[] encoded = new WireFormat.Writer(64)
+                .writeByte(WireFormat.VERSION_2)
+                .writeInt(Integer.MIN_VALUE)
+                .writeInt(-1)
+                .writeInt(Integer.MAX_VALUE)
+                .writeLong(Long.MIN_VALUE)
+                .writeLong(Long.MAX_VALUE)
+                .writeString(WireFormat.utf8("Rohit Śarmā"))
+                .writeString(null)
+                .writeString(WireFormat.utf8(""))
+                .toByteArray();
+
+        WireFormat.Reader reader = new WireFormat.Reader(encoded);
+        assertThat(reader.readVersion(WireFormat.VERSION_2)).isEqualTo(WireFormat.VERSION_2);
+        assertThat(reader.readInt()).isEqualTo(Integer.MIN_VALUE);
+        assertThat(reader.readInt()).isEqualTo(-1);
+        assertThat(reader.readInt()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(reader.readLong()).isEqualTo(Long.MIN_VALUE);
+        assertThat(reader.readLong()).isEqualTo(Long.MAX_VALUE);
+        assertThat(reader.readString()).isEqualTo("Rohit Śarmā");
+        assertThat(reader.readString()).isNull();
+        assertThat(reader.readString()).isEmpty();
+    }
+
+    @Test
+    void theWorstCaseSizesFitTheLargestValues() {
+        byte[] encoded = new WireFormat.Writer(WireFormat.MAX_VARINT_BYTES + WireFormat.MAX_VARLONG_BYTES)
+                .writeInt(Integer.MIN_VALUE)
+                .writeLong(Long.MIN_VALUE)
+                .toByteArray();
+
+        assertThat(encoded).hasSize(WireFormat.MAX_VARINT_BYTES + WireFormat.MAX_VARLONG_BYTES);
+    }
+
+    @Test
+    void unknownVersionsAndTruncatedEventsAreRejected() {
+        byte[] future = new WireFormat.Writer(1).writeByte((byte) (WireFormat.VERSION_2 + 1)).toByteArray();
+        assertThatThrownBy(() -> new WireFormat.Reader(future).readVersion(WireFormat.VERSION_2))
+                .isInstanceOf(SerializationException.class);
+
+        byte[] encoded = new WireFormat.Writer(16).writeString(WireFormat.utf8("UID-4242")).toByteArray();
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        assertThatThrownBy(() -> new WireFormat.Reader(truncated).readString())
+                .isInstanceOf(SerializationException.class);
+    }
+}